@@ -0,0 +1,72 @@
+package graph;
+
+import java.util.BitSet;
+
+/* See restrictions in Graph.java. */
+
+/** The ordered list of vertices adjacent to one vertex of a GraphObj
+ *  (its successors or its predecessors).  Entries appear in the order
+ *  in which they were added.  Each entry carries the id of the edge
+ *  that it represents.  The representation is chosen by the Storage
+ *  with which the graph was created.
+ *  @author Josh Rubin
+ */
+abstract class AdjList {
+
+    /** Returns the number of entries in me. */
+    abstract int size();
+
+    /** Returns entry K, numbering from 0.  Assumes 0 <= K < size().
+     *  May reorganize my representation. */
+    abstract int get(int k);
+
+    /** Returns entry K, as for get(K), but without modifying me, so that
+     *  I may be read this way while shared with other threads. */
+    int peek(int k) {
+        return get(k);
+    }
+
+    /** Returns true iff V is one of my entries. */
+    boolean contains(int v) {
+        return id(v) != 0;
+    }
+
+    /** Returns the edge id of entry V, or 0 if V is not one of my
+     *  entries. */
+    abstract int id(int v);
+
+    /** Add V, for the edge numbered ID (> 0), as my last entry. */
+    abstract void add(int v, int id);
+
+    /** Add VS[START .. END-1] as my last entries, in order, with edge ids
+     *  IDS[START .. END-1].  None of them may already be my entries. */
+    void addAll(int[] vs, int[] ids, int start, int end) {
+        for (int k = start; k < end; k += 1) {
+            add(vs[k], ids[k]);
+        }
+    }
+
+    /** Remove V from me, if present, keeping the other entries in
+     *  order.  Returns the edge id of V, or 0 if V was absent. */
+    abstract int remove(int v);
+
+    /** Remove all my entries that are in VERTICES, keeping the others
+     *  in order.  Returns the number of entries removed. */
+    abstract int removeAll(BitSet vertices);
+
+    /** Returns an Iteration over my entries, in order. */
+    abstract IntIteration iteration();
+
+    /** Returns an Iteration over the edge ids of my entries, in the same
+     *  order as iteration(). */
+    abstract IntIteration ids();
+
+    /** Returns a new list of the same kind with the same entries and
+     *  ids. */
+    abstract AdjList copy();
+
+    /** The AdjTable epoch in which I was created or copied.  See
+     *  AdjTable. */
+    int epoch;
+
+}
@@ -0,0 +1,146 @@
+package graph;
+
+import java.util.Arrays;
+
+/* See restrictions in Graph.java. */
+
+/** A table of AdjLists indexed by vertex number, used by GraphObj in
+ *  place of an ArrayList.  The table is divided into blocks of BLOCK
+ *  entries hung from a spine array, which lets snapshot() freeze its
+ *  current contents in constant time: the frozen copy shares the spine,
+ *  the blocks and the lists, and this table copies a spine, block or
+ *  list only the first time it modifies one after a snapshot.
+ *
+ *  To tell shared parts from its own, the table counts snapshots in
+ *  _epoch, records for each block the epoch in which it was made, and
+ *  stamps each list it creates or copies with the epoch (see
+ *  AdjList.epoch).  Anything stamped with an older epoch may be visible
+ *  to a snapshot, and is never modified again.  Until the first snapshot
+ *  everything is in epoch 0 and nothing is copied.
+ *  @author Josh Rubin
+ */
+class AdjTable {
+
+    /** An empty table. */
+    AdjTable() {
+        _blocks = new AdjList[1][];
+        _made = new int[1];
+    }
+
+    /** A frozen table containing the first SIZE entries of BLOCKS. */
+    private AdjTable(AdjList[][] blocks, int size) {
+        _blocks = blocks;
+        _made = null;
+        _size = size;
+        _epoch = FROZEN;
+    }
+
+    /** Returns the number of entries, including null ones. */
+    int size() {
+        return _size;
+    }
+
+    /** Returns entry V, or null if V is out of range. */
+    AdjList get(int v) {
+        if (v < 0 || v >= _size) {
+            return null;
+        }
+        return _blocks[v >>> SHIFT][v & MASK];
+    }
+
+    /** Returns item K (numbering from 0) of entry V, which must be a
+     *  non-null list of more than K items.  Lists that I share with a
+     *  snapshot are read without reorganizing them. */
+    int get(int v, int k) {
+        AdjList list = get(v);
+        return list.epoch == _epoch ? list.get(k) : list.peek(k);
+    }
+
+    /** Returns entry V (which must be non-null), first replacing it with
+     *  a private copy if a snapshot may share it, so that the caller may
+     *  modify it. */
+    AdjList edit(int v) {
+        AdjList list = get(v);
+        if (list.epoch != _epoch) {
+            list = list.copy();
+            block(v)[v & MASK] = list;
+            list.epoch = _epoch;
+        }
+        return list;
+    }
+
+    /** Set entry V (< size()) to LIST, which may be null. */
+    void set(int v, AdjList list) {
+        if (list != null) {
+            list.epoch = _epoch;
+        }
+        block(v)[v & MASK] = list;
+    }
+
+    /** Append LIST, which may be null, as entry size(). */
+    void add(AdjList list) {
+        ensureCapacity(_size + 1);
+        _size += 1;
+        set(_size - 1, list);
+    }
+
+    /** Make room for at least N entries. */
+    void ensureCapacity(int n) {
+        int blocks = (n + MASK) >>> SHIFT;
+        if (blocks > _blocks.length) {
+            int len = Math.max(blocks, 2 * _blocks.length);
+            _blocks = Arrays.copyOf(_blocks, len);
+            _made = Arrays.copyOf(_made, len);
+            _spineShared = false;
+        }
+    }
+
+    /** Returns a frozen copy of my current contents, and arrange to copy
+     *  whatever I modify from now on.  The copy must not be modified. */
+    AdjTable snapshot() {
+        _epoch += 1;
+        _spineShared = true;
+        return new AdjTable(_blocks, _size);
+    }
+
+    /** Returns the block holding entry V, after making it (and the spine)
+     *  my own if a snapshot may share it. */
+    private AdjList[] block(int v) {
+        int b = v >>> SHIFT;
+        if (_spineShared) {
+            _blocks = _blocks.clone();
+            _made = _made.clone();
+            _spineShared = false;
+        }
+        if (_blocks[b] == null) {
+            _blocks[b] = new AdjList[BLOCK];
+            _made[b] = _epoch;
+        } else if (_made[b] != _epoch) {
+            _blocks[b] = _blocks[b].clone();
+            _made[b] = _epoch;
+        }
+        return _blocks[b];
+    }
+
+    /** Log2 of the number of entries in a block. */
+    private static final int SHIFT = 6;
+    /** The number of entries in a block. */
+    private static final int BLOCK = 1 << SHIFT;
+    /** Mask giving the position of an entry within its block. */
+    private static final int MASK = BLOCK - 1;
+    /** The epoch of a frozen table, which matches no list. */
+    private static final int FROZEN = -1;
+
+    /** Entry V is _blocks[V / BLOCK][V % BLOCK].  Missing blocks are
+     *  null. */
+    private AdjList[][] _blocks;
+    /** _made[b] is the epoch in which _blocks[b] was created. */
+    private int[] _made;
+    /** True iff _blocks may be shared with a snapshot. */
+    private boolean _spineShared;
+    /** The number of entries. */
+    private int _size;
+    /** The number of snapshots taken of me, or FROZEN. */
+    private int _epoch;
+
+}
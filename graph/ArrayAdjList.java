@@ -0,0 +1,288 @@
+package graph;
+
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** An AdjList represented as a growable array of ints, with a parallel
+ *  array of edge ids.  Removing an
+ *  entry leaves a hole (0, which is never a vertex) in its place; the
+ *  holes are squeezed out, keeping the remaining entries in order, the
+ *  next time an entry is fetched by position or the array fills up.
+ *  Squeezing always copies into a fresh array, so that an Iteration in
+ *  progress is not disturbed by it.
+ *
+ *  Short lists are searched linearly.  Once a list grows past INDEXED
+ *  entries, it also keeps an IntIndex from each entry to its position,
+ *  so that contains and remove take expected constant time even for
+ *  vertices of very high degree.
+ *  @author Josh Rubin
+ */
+class ArrayAdjList extends AdjList {
+
+    @Override
+    int size() {
+        return _size;
+    }
+
+    @Override
+    int get(int k) {
+        if (_size != _end) {
+            squeeze();
+        }
+        return _items[k];
+    }
+
+    @Override
+    int peek(int k) {
+        if (_size == _end) {
+            return _items[k];
+        }
+        for (int j = 0; ; j += 1) {
+            if (_items[j] != 0) {
+                if (k == 0) {
+                    return _items[j];
+                }
+                k -= 1;
+            }
+        }
+    }
+
+    @Override
+    boolean contains(int v) {
+        return indexOf(v) >= 0;
+    }
+
+    @Override
+    int id(int v) {
+        int k = indexOf(v);
+        return k < 0 ? 0 : _ids[k];
+    }
+
+    @Override
+    void add(int v, int id) {
+        if (_end == _items.length) {
+            if (_end > 0 && 2 * _size <= _end) {
+                resize(_items.length);
+            } else {
+                resize(Math.max(INITIAL, 2 * _end));
+            }
+        }
+        _items[_end] = v;
+        _ids[_end] = id;
+        if (_index != null) {
+            _index.put(v, _end);
+        }
+        _end += 1;
+        _size += 1;
+        if (_index == null && _size > INDEXED) {
+            _index = new IntIndex(_size);
+            reindex();
+        }
+    }
+
+    @Override
+    void addAll(int[] vs, int[] ids, int start, int end) {
+        int n = end - start;
+        if (_end + n > _items.length) {
+            if (_size + n <= _items.length && 2 * _size <= _end) {
+                resize(_items.length);
+            } else {
+                resize(Math.max(_size + n, 2 * _items.length));
+            }
+        }
+        System.arraycopy(vs, start, _items, _end, n);
+        System.arraycopy(ids, start, _ids, _end, n);
+        if (_index != null) {
+            for (int k = _end; k < _end + n; k += 1) {
+                _index.put(_items[k], k);
+            }
+        }
+        _end += n;
+        _size += n;
+        if (_index == null && _size > INDEXED) {
+            _index = new IntIndex(_size);
+            reindex();
+        }
+    }
+
+    @Override
+    int remove(int v) {
+        int k = indexOf(v);
+        if (k < 0) {
+            return 0;
+        }
+        _items[k] = 0;
+        _size -= 1;
+        if (_index != null) {
+            _index.remove(v);
+        }
+        if (k == _end - 1) {
+            _end -= 1;
+        }
+        return _ids[k];
+    }
+
+    @Override
+    int removeAll(BitSet vertices) {
+        int n;
+        n = 0;
+        for (int k = 0; k < _end; k += 1) {
+            if (_items[k] != 0 && vertices.get(_items[k])) {
+                _items[k] = 0;
+                n += 1;
+            }
+        }
+        if (n > 0) {
+            _size -= n;
+            squeeze();
+        }
+        return n;
+    }
+
+    @Override
+    IntIteration iteration() {
+        return new Entries(_items);
+    }
+
+    @Override
+    IntIteration ids() {
+        return new Entries(_ids);
+    }
+
+    @Override
+    AdjList copy() {
+        ArrayAdjList result = new ArrayAdjList();
+        result.addAll(compact(_items), compact(_ids), 0, _size);
+        return result;
+    }
+
+    /** Returns the elements of VALUES (either _items or _ids) that
+     *  correspond to my entries, in order, without holes. */
+    private int[] compact(int[] values) {
+        int[] result = new int[_size];
+        int j;
+        j = 0;
+        for (int k = 0; k < _end; k += 1) {
+            if (_items[k] != 0) {
+                result[j] = values[k];
+                j += 1;
+            }
+        }
+        return result;
+    }
+
+    /** An Iteration over my entries, or their ids, as they are at the
+     *  time it is created. */
+    private class Entries extends IntIteration {
+        /** An Iteration delivering the values in VALUES (either _items
+         *  or _ids) that correspond to my entries. */
+        Entries(int[] values) {
+            _values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (_k < _last && _a[_k] == 0) {
+                _k += 1;
+            }
+            return _k < _last;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int v = _values[_k];
+            _k += 1;
+            return v;
+        }
+
+        /** The entries being iterated over. */
+        private final int[] _a = _items;
+        /** The values to deliver. */
+        private final int[] _values;
+        /** End of the entries in _a. */
+        private final int _last = _end;
+        /** Position of the next entry to deliver. */
+        private int _k;
+    }
+
+    /** Returns the position of V in _items, or -1 if absent. */
+    private int indexOf(int v) {
+        if (_index != null) {
+            return _index.get(v);
+        }
+        for (int k = 0; k < _end; k += 1) {
+            if (_items[k] == v) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /** Squeeze the holes out of _items, releasing space if the array is
+     *  mostly empty. */
+    private void squeeze() {
+        int cap = _items.length;
+        resize(_size < cap / 4 ? Math.max(INITIAL, cap / 2) : cap);
+    }
+
+    /** Replace _items with a new array of length CAP (>= _size)
+     *  holding my entries in order, without holes. */
+    private void resize(int cap) {
+        int[] items = new int[cap], ids = new int[cap];
+        int j;
+        j = 0;
+        for (int k = 0; k < _end; k += 1) {
+            if (_items[k] != 0) {
+                items[j] = _items[k];
+                ids[j] = _ids[k];
+                j += 1;
+            }
+        }
+        boolean moved = _end != _size;
+        _items = items;
+        _ids = ids;
+        _end = _size;
+        if (_index != null && _size < INDEXED / 2) {
+            _index = null;
+        } else if (moved) {
+            reindex();
+        }
+    }
+
+    /** Recompute the positions recorded in _index, if any. */
+    private void reindex() {
+        if (_index != null) {
+            _index.clear();
+            for (int k = 0; k < _end; k += 1) {
+                if (_items[k] != 0) {
+                    _index.put(_items[k], k);
+                }
+            }
+        }
+    }
+
+    /** Capacity allocated on the first add. */
+    private static final int INITIAL = 4;
+    /** Lists longer than this are indexed. */
+    private static final int INDEXED = 16;
+    /** An empty array, shared by all empty lists. */
+    private static final int[] EMPTY = {};
+
+    /** My entries, in order, are the non-zero values in
+     *  _items[0 .. _end-1]. */
+    private int[] _items = EMPTY;
+    /** _ids[k] is the edge id of _items[k]. */
+    private int[] _ids = EMPTY;
+    /** One past the last used position in _items. */
+    private int _end;
+    /** The number of my entries. */
+    private int _size;
+    /** Position in _items of each entry, or null if I am short. */
+    private IntIndex _index;
+
+}
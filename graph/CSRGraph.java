@@ -0,0 +1,300 @@
+package graph;
+
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** An immutable Graph in compressed-sparse-row form.  The successors of
+ *  vertex V occupy the entries _succ[_out[V]] .. _succ[_out[V + 1] - 1],
+ *  in the order in which the edges were added to the graph from which
+ *  this one was built, and likewise for predecessors in _pred and _in.
+ *  For undirected graphs, the predecessor arrays are the successor arrays.
+ *  Vertex numbers and edge ids are the same as in the original graph;
+ *  the id of the edge to _succ[K] is _ids[K].
+ *
+ *  Any attempt to modify a CSRGraph throws UnsupportedOperationException.
+ *  @author Josh Rubin
+ */
+public class CSRGraph extends Graph {
+
+    /** A frozen copy of G. */
+    public CSRGraph(Graph G) {
+        _directed = G.isDirected();
+        _vertexSize = G.vertexSize();
+        _edgeSize = G.edgeSize();
+        _maxVertex = G.maxVertex();
+        _vertices = new BitSet(_maxVertex + 1);
+        for (int v : G.vertices()) {
+            _vertices.set(v);
+        }
+        _out = new int[_maxVertex + 2];
+        _succ = new int[offsets(G, _out, true)];
+        _ids = new int[_succ.length];
+        fill(G, _out, _succ, true);
+        if (_directed) {
+            _in = new int[_maxVertex + 2];
+            _pred = new int[offsets(G, _in, false)];
+            fill(G, _in, _pred, false);
+        } else {
+            _in = _out;
+            _pred = _succ;
+        }
+    }
+
+    /** Set OFFSETS to the running sums of the out-degrees (if OUT) or
+     *  in-degrees of the vertices of G, and return the total. */
+    private int offsets(Graph G, int[] offsets, boolean out) {
+        for (int v = 1; v <= _maxVertex; v += 1) {
+            if (_vertices.get(v)) {
+                offsets[v + 1] = out ? G.outDegree(v) : G.inDegree(v);
+            }
+            offsets[v + 1] += offsets[v];
+        }
+        return offsets[_maxVertex + 1];
+    }
+
+    /** Copy the successors (if OUT) or predecessors of each vertex of G
+     *  into TARGETS at the positions given by OFFSETS.  With the
+     *  successors, copy the ids of the edges to them into _ids. */
+    private void fill(Graph G, int[] offsets, int[] targets, boolean out) {
+        for (int v = _vertices.nextSetBit(1); v >= 0;
+             v = _vertices.nextSetBit(v + 1)) {
+            int k = offsets[v];
+            for (int w : out ? G.successors(v) : G.predecessors(v)) {
+                targets[k] = w;
+                k += 1;
+            }
+            if (out) {
+                IntIteration ids = G.successorIds(v);
+                for (k = offsets[v]; k < offsets[v + 1]; k += 1) {
+                    _ids[k] = ids.nextInt();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int vertexSize() {
+        return _vertexSize;
+    }
+
+    @Override
+    public int maxVertex() {
+        return _maxVertex;
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edgeSize;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return _directed;
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return contains(v) ? _out[v + 1] - _out[v] : 0;
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return contains(v) ? _in[v + 1] - _in[v] : 0;
+    }
+
+    @Override
+    public boolean contains(int u) {
+        return u > 0 && u <= _maxVertex && _vertices.get(u);
+    }
+
+    @Override
+    public boolean contains(int u, int v) {
+        return edgeId(u, v) != 0;
+    }
+
+    @Override
+    public int add() {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public int add(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public Iteration<Integer> vertices() {
+        return verticesInt();
+    }
+
+    @Override
+    public IntIteration verticesInt() {
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                return _next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (_next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int v = _next;
+                _next = _vertices.nextSetBit(v + 1);
+                return v;
+            }
+
+            /** The next vertex to deliver, or -1 if none. */
+            private int _next = _vertices.nextSetBit(1);
+        };
+    }
+
+    @Override
+    public int successor(int v, int k) {
+        if (k < 0 || k >= outDegree(v)) {
+            return 0;
+        }
+        return _succ[_out[v] + k];
+    }
+
+    @Override
+    public int predecessor(int v, int k) {
+        if (k < 0 || k >= inDegree(v)) {
+            return 0;
+        }
+        return _pred[_in[v] + k];
+    }
+
+    @Override
+    public Iteration<Integer> successors(int v) {
+        return successorsInt(v);
+    }
+
+    @Override
+    public Iteration<Integer> predecessors(int v) {
+        return predecessorsInt(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        return IntIteration.slice(_succ, _out[v], _out[v + 1]);
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        return IntIteration.slice(_pred, _in[v], _in[v + 1]);
+    }
+
+    @Override
+    public Iteration<int[]> edges() {
+        return new Iteration<int[]>() {
+            @Override
+            public boolean hasNext() {
+                while (_k < _succ.length) {
+                    while (_k >= _out[_u + 1]) {
+                        _u += 1;
+                    }
+                    if (_directed || _u <= _succ[_k]) {
+                        return true;
+                    }
+                    _k += 1;
+                }
+                return false;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _edge[0] = _u;
+                _edge[1] = _succ[_k];
+                _k += 1;
+                return _edge;
+            }
+
+            /** Index in _succ of the next candidate edge. */
+            private int _k;
+            /** Source vertex of the edge at _k. */
+            private int _u;
+            /** The array returned by next(). */
+            private final int[] _edge = new int[2];
+        };
+    }
+
+    /** Returns me, since I never change. */
+    @Override
+    public Graph snapshot() {
+        return this;
+    }
+
+    /** Returns the id that the edge (U, V) had in the graph from which
+     *  I was built, or 0 if there is no such edge. */
+    @Override
+    protected int edgeId(int u, int v) {
+        if (!contains(u) || !contains(v)) {
+            return 0;
+        }
+        for (int k = _out[u]; k < _out[u + 1]; k += 1) {
+            if (_succ[k] == v) {
+                return _ids[k];
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    IntIteration successorIds(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        return IntIteration.slice(_ids, _out[v], _out[v + 1]);
+    }
+
+    /** Returns 0, since I never change. */
+    @Override
+    long stamp() {
+        return 0;
+    }
+
+    /** True iff I am directed. */
+    private final boolean _directed;
+    /** Number of my vertices. */
+    private final int _vertexSize;
+    /** Number of my edges. */
+    private final int _edgeSize;
+    /** My largest vertex number. */
+    private final int _maxVertex;
+    /** The set of my vertex numbers. */
+    private final BitSet _vertices;
+    /** Start of each vertex's successors in _succ, indexed by vertex. */
+    private final int[] _out;
+    /** Successors of all vertices, concatenated in vertex order. */
+    private final int[] _succ;
+    /** Edge ids of the entries of _succ. */
+    private final int[] _ids;
+    /** Start of each vertex's predecessors in _pred, indexed by vertex. */
+    private final int[] _in;
+    /** Predecessors of all vertices, concatenated in vertex order. */
+    private final int[] _pred;
+
+}
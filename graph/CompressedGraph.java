@@ -0,0 +1,465 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** An immutable Graph whose adjacency lists are compressed, in the manner
+ *  of WebGraph, for graphs too large to hold as arrays of ints.  Each
+ *  vertex's successors are sorted and stored as variable-length gaps
+ *  between consecutive entries, seven bits to the byte, so that a graph
+ *  in which most edges join nearby vertex numbers needs little more than
+ *  a byte per edge.  Predecessor lists are stored the same way.  (Since
+ *  the lists are sorted, the successors and predecessors of a vertex
+ *  are delivered in increasing order rather than in the order in which
+ *  the edges were added to the original graph.)
+ *
+ *  The lists are decoded as they are iterated over.  To find the list of
+ *  a given vertex, an index records the position and the number of
+ *  preceding edges of every SAMPLE'th list; the lists in between are
+ *  skipped over.  Edge ids are one plus the position of the edge among
+ *  all successors, taken from the smaller endpoint for undirected
+ *  graphs.
+ *
+ *  Any attempt to modify a CompressedGraph throws
+ *  UnsupportedOperationException.
+ *  @author Josh Rubin
+ */
+public class CompressedGraph extends Graph {
+
+    /** A compressed copy of G. */
+    public CompressedGraph(Graph G) {
+        _directed = G.isDirected();
+        _vertexSize = G.vertexSize();
+        _edgeSize = G.edgeSize();
+        _maxVertex = G.maxVertex();
+        _vertices = new BitSet(_maxVertex + 1);
+        for (int v : G.vertices()) {
+            _vertices.set(v);
+        }
+        _succ = new Lists(G, true);
+        _pred = _directed ? new Lists(G, false) : _succ;
+    }
+
+    /** Returns the approximate number of bytes used by my representation,
+     *  not counting fixed overheads. */
+    public long byteSize() {
+        long n = _succ.byteSize() + _vertices.size() / 8;
+        return _directed ? n + _pred.byteSize() : n;
+    }
+
+    @Override
+    public int vertexSize() {
+        return _vertexSize;
+    }
+
+    @Override
+    public int maxVertex() {
+        return _maxVertex;
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edgeSize;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return _directed;
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return contains(v) ? _succ.cursor(v).size() : 0;
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return contains(v) ? _pred.cursor(v).size() : 0;
+    }
+
+    @Override
+    public boolean contains(int u) {
+        return u > 0 && u <= _maxVertex && _vertices.get(u);
+    }
+
+    @Override
+    public boolean contains(int u, int v) {
+        return edgeId(u, v) != 0;
+    }
+
+    @Override
+    public int add() {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public int add(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public Iteration<Integer> vertices() {
+        return verticesInt();
+    }
+
+    @Override
+    public IntIteration verticesInt() {
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                return _next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (_next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int v = _next;
+                _next = _vertices.nextSetBit(v + 1);
+                return v;
+            }
+
+            /** The next vertex to deliver, or -1 if none. */
+            private int _next = _vertices.nextSetBit(1);
+        };
+    }
+
+    @Override
+    public int successor(int v, int k) {
+        return contains(v) ? _succ.cursor(v).get(k) : 0;
+    }
+
+    @Override
+    public int predecessor(int v, int k) {
+        return contains(v) ? _pred.cursor(v).get(k) : 0;
+    }
+
+    @Override
+    public Iteration<Integer> successors(int v) {
+        return successorsInt(v);
+    }
+
+    @Override
+    public Iteration<Integer> predecessors(int v) {
+        return predecessorsInt(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        return contains(v) ? _succ.cursor(v) : IntIteration.empty();
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        return contains(v) ? _pred.cursor(v) : IntIteration.empty();
+    }
+
+    @Override
+    public Iteration<int[]> edges() {
+        return new Iteration<int[]>() {
+            @Override
+            public boolean hasNext() {
+                while (_v == 0) {
+                    if (_out.hasNext()) {
+                        int v = _out.nextInt();
+                        if (_directed || _u <= v) {
+                            _v = v;
+                        }
+                    } else if (_u < _maxVertex) {
+                        _u += 1;
+                        _out = _succ.next(_out, _u);
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _edge[0] = _u;
+                _edge[1] = _v;
+                _v = 0;
+                return _edge;
+            }
+
+            /** The vertex whose outgoing edges are being delivered. */
+            private int _u;
+            /** The successors of _u not yet examined. */
+            private Lists.Cursor _out = _succ.cursor(0);
+            /** Target of the next edge to deliver, or 0 if not yet
+             *  found. */
+            private int _v;
+            /** The array returned by next(). */
+            private final int[] _edge = new int[2];
+        };
+    }
+
+    /** Returns me, since I never change. */
+    @Override
+    public Graph snapshot() {
+        return this;
+    }
+
+    @Override
+    protected int edgeId(int u, int v) {
+        if (!contains(u) || !contains(v)) {
+            return 0;
+        }
+        Lists.Cursor c = _succ.cursor(_directed ? u : Math.min(u, v));
+        int w = _directed ? v : Math.max(u, v);
+        while (c.hasNext()) {
+            int x = c.nextInt();
+            if (x >= w) {
+                return x == w ? c.id() : 0;
+            }
+        }
+        return 0;
+    }
+
+    /** Returns 0, since I never change. */
+    @Override
+    long stamp() {
+        return 0;
+    }
+
+    /** The successor or predecessor lists of all vertices 0 ..
+     *  _maxVertex, compressed into one array of bytes.  The list of
+     *  vertex V starts with its length, followed by its first entry
+     *  relative to V (as a zigzag-encoded signed number), and then by the
+     *  gaps between successive entries, less one.  Every number is a
+     *  varint: seven bits per byte, least significant first, with the
+     *  high bit set on every byte but the last. */
+    private class Lists {
+
+        /** The successor (if OUT) or predecessor lists of G. */
+        Lists(Graph G, boolean out) {
+            int samples = (_maxVertex >>> SHIFT) + 1;
+            _offsets = new int[samples];
+            _bases = new int[samples];
+            _data = new byte[Math.max(16, 2 * _maxVertex)];
+            int[] list = new int[16];
+            int base;
+            base = 0;
+            for (int v = 0; v <= _maxVertex; v += 1) {
+                if ((v & (SAMPLE - 1)) == 0) {
+                    _offsets[v >>> SHIFT] = _used;
+                    _bases[v >>> SHIFT] = base;
+                }
+                int n;
+                n = 0;
+                if (contains(v)) {
+                    for (int w : out ? G.successorsInt(v)
+                             : G.predecessorsInt(v)) {
+                        if (n == list.length) {
+                            list = Arrays.copyOf(list, 2 * n);
+                        }
+                        list[n] = w;
+                        n += 1;
+                    }
+                }
+                Arrays.sort(list, 0, n);
+                put(n);
+                for (int k = 0; k < n; k += 1) {
+                    if (k == 0) {
+                        int d = list[0] - v;
+                        put((d << 1) ^ (d >> 31));
+                    } else {
+                        put(list[k] - list[k - 1] - 1);
+                    }
+                }
+                base += n;
+            }
+            _data = Arrays.copyOf(_data, _used);
+        }
+
+        /** Append X (treated as unsigned) to _data as a varint. */
+        private void put(int x) {
+            if (_used + 5 > _data.length) {
+                _data = Arrays.copyOf(_data, 2 * _data.length);
+            }
+            while ((x & ~0x7f) != 0) {
+                _data[_used] = (byte) (x | 0x80);
+                _used += 1;
+                x >>>= 7;
+            }
+            _data[_used] = (byte) x;
+            _used += 1;
+        }
+
+        /** Returns the number of bytes in my arrays. */
+        long byteSize() {
+            return _data.length + 4L * (_offsets.length + _bases.length);
+        }
+
+        /** Returns a Cursor over the list of vertex V. */
+        Cursor cursor(int v) {
+            int s = v >>> SHIFT;
+            Cursor c = new Cursor(_offsets[s], _bases[s], s << SHIFT);
+            while (c._v < v) {
+                c.skip();
+            }
+            c.start();
+            return c;
+        }
+
+        /** Returns a Cursor over the list of vertex V, given that C is
+         *  a Cursor over the list of V - 1 that has been exhausted. */
+        Cursor next(Cursor c, int v) {
+            Cursor d = new Cursor(c._pos, c._base + c._size, v);
+            d.start();
+            return d;
+        }
+
+        /** An Iteration over one of my lists. */
+        private class Cursor extends IntIteration {
+
+            /** A Cursor positioned at the start of the list of vertex V,
+             *  which starts at POS in _data and is preceded by BASE
+             *  entries. */
+            Cursor(int pos, int base, int v) {
+                _pos = pos;
+                _base = base;
+                _v = v;
+            }
+
+            /** Returns the next varint from _data. */
+            private int read() {
+                int x, shift;
+                x = shift = 0;
+                while (true) {
+                    byte b = _data[_pos];
+                    _pos += 1;
+                    x |= (b & 0x7f) << shift;
+                    if (b >= 0) {
+                        return x;
+                    }
+                    shift += 7;
+                }
+            }
+
+            /** Move past the list of _v to the next vertex's list. */
+            void skip() {
+                int n = read();
+                _base += n;
+                while (n > 0) {
+                    if (_data[_pos] >= 0) {
+                        n -= 1;
+                    }
+                    _pos += 1;
+                }
+                _v += 1;
+            }
+
+            /** Read the length of the list of _v, in preparation for
+             *  iterating over it. */
+            void start() {
+                _size = read();
+            }
+
+            /** Returns the length of my list. */
+            int size() {
+                return _size;
+            }
+
+            /** Returns entry K of my list, or 0 if there is none.  Assumes
+             *  that no entries have yet been delivered. */
+            int get(int k) {
+                if (k < 0 || k >= _size) {
+                    return 0;
+                }
+                for (int j = 0; j < k; j += 1) {
+                    nextInt();
+                }
+                return nextInt();
+            }
+
+            /** Returns the edge id of the entry most recently delivered. */
+            int id() {
+                return _base + _k;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return _k < _size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (_k >= _size) {
+                    throw new NoSuchElementException();
+                }
+                int x = read();
+                if (_k == 0) {
+                    _last = _v + ((x >>> 1) ^ -(x & 1));
+                } else {
+                    _last += x + 1;
+                }
+                _k += 1;
+                return _last;
+            }
+
+            /** Position in _data of the next varint. */
+            private int _pos;
+            /** Number of entries in the lists of vertices before _v. */
+            private int _base;
+            /** The vertex whose list I deliver. */
+            private int _v;
+            /** The length of my list. */
+            private int _size;
+            /** The number of entries delivered. */
+            private int _k;
+            /** The entry most recently delivered. */
+            private int _last;
+        }
+
+        /** The encoded lists. */
+        private byte[] _data;
+        /** The number of bytes of _data in use during construction. */
+        private int _used;
+        /** _offsets[s] is the position in _data of the list of vertex
+         *  s * SAMPLE. */
+        private final int[] _offsets;
+        /** _bases[s] is the total length of the lists of the vertices
+         *  before s * SAMPLE. */
+        private final int[] _bases;
+    }
+
+    /** Log2 of the spacing of the lists recorded in Lists._offsets. */
+    private static final int SHIFT = 3;
+    /** The spacing of the lists recorded in Lists._offsets. */
+    private static final int SAMPLE = 1 << SHIFT;
+
+    /** True iff I am directed. */
+    private final boolean _directed;
+    /** Number of my vertices. */
+    private final int _vertexSize;
+    /** Number of my edges. */
+    private final int _edgeSize;
+    /** My largest vertex number. */
+    private final int _maxVertex;
+    /** The set of my vertex numbers. */
+    private final BitSet _vertices;
+    /** Successor lists. */
+    private final Lists _succ;
+    /** Predecessor lists; the same as _succ if I am undirected. */
+    private final Lists _pred;
+
+}
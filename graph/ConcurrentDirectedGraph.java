@@ -0,0 +1,507 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/* See restrictions in Graph.java. */
+
+/** A directed graph that may be shared among threads.  Queries never
+ *  block: the successors and predecessors of each vertex are published
+ *  as immutable Neighbors objects through volatile fields, so a reader
+ *  always sees some complete state of each list.  Edge insertions and
+ *  removals lock only the stripes of their two endpoints, so writers
+ *  working on different parts of the graph proceed in parallel.  Adding
+ *  or removing a vertex is comparatively rare, and locks the vertex
+ *  table (removal also locks every stripe).
+ *
+ *  A query that spans several vertices (such as edges(), or a
+ *  Traversal) sees each vertex's lists as of some moment during the
+ *  query, but not necessarily the same moment for all of them.
+ *  @author Josh Rubin
+ */
+public class ConcurrentDirectedGraph extends Graph {
+
+    /** An empty graph with a number of lock stripes suited to the number
+     *  of available processors. */
+    public ConcurrentDirectedGraph() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /** An empty graph whose vertices are divided among at least STRIPES
+     *  locks. */
+    public ConcurrentDirectedGraph(int stripes) {
+        int n;
+        n = 1;
+        while (n < stripes) {
+            n *= 2;
+        }
+        _locks = new ReentrantLock[n];
+        for (int i = 0; i < n; i += 1) {
+            _locks[i] = new ReentrantLock();
+        }
+        _table = new AtomicReferenceArray<>(INITIAL);
+    }
+
+    @Override
+    public int vertexSize() {
+        return _vertexSize.get();
+    }
+
+    @Override
+    public int maxVertex() {
+        return _maxVertex;
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edgeSize.get();
+    }
+
+    @Override
+    public boolean isDirected() {
+        return true;
+    }
+
+    @Override
+    public int outDegree(int v) {
+        Vertex x = vertex(v);
+        return x == null ? 0 : x.out.size;
+    }
+
+    @Override
+    public int inDegree(int v) {
+        Vertex x = vertex(v);
+        return x == null ? 0 : x.in.size;
+    }
+
+    @Override
+    public boolean contains(int u) {
+        return vertex(u) != null;
+    }
+
+    @Override
+    public boolean contains(int u, int v) {
+        return edgeId(u, v) != 0;
+    }
+
+    @Override
+    public int add() {
+        synchronized (_tableLock) {
+            int v;
+            if (_free.isEmpty()) {
+                _end += 1;
+                v = _end;
+            } else {
+                v = _free.poll();
+            }
+            if (v >= _table.length()) {
+                AtomicReferenceArray<Vertex> table =
+                    new AtomicReferenceArray<>(2 * v);
+                for (int i = 0; i < _table.length(); i += 1) {
+                    table.set(i, _table.get(i));
+                }
+                _table = table;
+            }
+            _table.set(v, new Vertex());
+            _vertexSize.incrementAndGet();
+            _maxVertex = Math.max(_maxVertex, v);
+            return v;
+        }
+    }
+
+    @Override
+    public int add(int u, int v) {
+        lock(u, v);
+        try {
+            Vertex x = vertex(u), y = vertex(v);
+            if (x == null || y == null) {
+                throw new IllegalArgumentException("vertex not from Graph");
+            }
+            int id = x.out.id(v);
+            if (id != 0) {
+                return id;
+            }
+            id = newEdgeId();
+            x.out = x.out.with(v, id);
+            y.in = y.in.with(u, id);
+            _edgeSize.incrementAndGet();
+            return id;
+        } finally {
+            unlock(u, v);
+        }
+    }
+
+    @Override
+    public void remove(int v) {
+        synchronized (_tableLock) {
+            lockAll();
+            try {
+                Vertex x = vertex(v);
+                if (x == null) {
+                    return;
+                }
+                _table.set(v, null);
+                for (int k = 0; k < x.out.size; k += 1) {
+                    int w = x.out.targets[k];
+                    if (w != v) {
+                        Vertex y = vertex(w);
+                        y.in = y.in.without(v);
+                    }
+                    freeEdgeId(x.out.ids[k]);
+                }
+                for (int k = 0; k < x.in.size; k += 1) {
+                    int u = x.in.targets[k];
+                    if (u != v) {
+                        Vertex y = vertex(u);
+                        y.out = y.out.without(v);
+                        freeEdgeId(x.in.ids[k]);
+                    }
+                }
+                _free.add(v);
+                _vertexSize.decrementAndGet();
+                while (_maxVertex > 0 && vertex(_maxVertex) == null) {
+                    _maxVertex -= 1;
+                }
+            } finally {
+                unlockAll();
+            }
+        }
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        lock(u, v);
+        try {
+            Vertex x = vertex(u), y = vertex(v);
+            if (x == null || y == null) {
+                return;
+            }
+            int id = x.out.id(v);
+            if (id != 0) {
+                x.out = x.out.without(v);
+                y.in = y.in.without(u);
+                freeEdgeId(id);
+            }
+        } finally {
+            unlock(u, v);
+        }
+    }
+
+    @Override
+    public Iteration<Integer> vertices() {
+        return verticesInt();
+    }
+
+    @Override
+    public IntIteration verticesInt() {
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                while (_v <= _last && _tab.get(_v) == null) {
+                    _v += 1;
+                }
+                return _v <= _last;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _v += 1;
+                return _v - 1;
+            }
+
+            /** The vertex table as of my creation. */
+            private final AtomicReferenceArray<Vertex> _tab = _table;
+            /** The largest vertex number to deliver. */
+            private final int _last =
+                Math.min(_maxVertex, _tab.length() - 1);
+            /** The next vertex number to examine. */
+            private int _v = 1;
+        };
+    }
+
+    @Override
+    public int successor(int v, int k) {
+        Vertex x = vertex(v);
+        return x == null ? 0 : x.out.get(k);
+    }
+
+    @Override
+    public int predecessor(int v, int k) {
+        Vertex x = vertex(v);
+        return x == null ? 0 : x.in.get(k);
+    }
+
+    @Override
+    public Iteration<Integer> successors(int v) {
+        return successorsInt(v);
+    }
+
+    @Override
+    public Iteration<Integer> predecessors(int v) {
+        return predecessorsInt(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        Vertex x = vertex(v);
+        return x == null ? IntIteration.empty() : x.out.iteration();
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        Vertex x = vertex(v);
+        return x == null ? IntIteration.empty() : x.in.iteration();
+    }
+
+    @Override
+    public Iteration<int[]> edges() {
+        return new Iteration<int[]>() {
+            @Override
+            public boolean hasNext() {
+                while (_out == null || _k >= _out.size) {
+                    _u += 1;
+                    if (_u > _last) {
+                        return false;
+                    }
+                    Vertex x = _tab.get(_u);
+                    _out = x == null ? null : x.out;
+                    _k = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _edge[0] = _u;
+                _edge[1] = _out.targets[_k];
+                _k += 1;
+                return _edge;
+            }
+
+            /** The vertex table as of my creation. */
+            private final AtomicReferenceArray<Vertex> _tab = _table;
+            /** The largest vertex number to examine. */
+            private final int _last =
+                Math.min(_maxVertex, _tab.length() - 1);
+            /** The vertex whose outgoing edges are being delivered. */
+            private int _u;
+            /** The successors of _u, or null. */
+            private Neighbors _out;
+            /** Position in _out of the next edge to deliver. */
+            private int _k;
+            /** The array returned by next(). */
+            private final int[] _edge = new int[2];
+        };
+    }
+
+    /** Returns a CSRGraph copy of my current state, taken while no
+     *  writer is active.  Readers are not delayed. */
+    @Override
+    public Graph snapshot() {
+        synchronized (_tableLock) {
+            lockAll();
+            try {
+                return new CSRGraph(this);
+            } finally {
+                unlockAll();
+            }
+        }
+    }
+
+    @Override
+    protected int edgeId(int u, int v) {
+        Vertex x = vertex(u);
+        return x == null || !contains(v) ? 0 : x.out.id(v);
+    }
+
+    /** Returns the ids stored with the successors of V.  As with
+     *  successorsInt, they are those of one version of its list. */
+    @Override
+    IntIteration successorIds(int v) {
+        Vertex x = vertex(v);
+        return x == null ? IntIteration.empty() : x.out.ids();
+    }
+
+    /** Returns the Vertex numbered V, or null if V is not one of my
+     *  vertices. */
+    private Vertex vertex(int v) {
+        AtomicReferenceArray<Vertex> table = _table;
+        return v > 0 && v < table.length() ? table.get(v) : null;
+    }
+
+    /** Returns the lock guarding the lists of vertex V. */
+    private ReentrantLock stripe(int v) {
+        return _locks[v & (_locks.length - 1)];
+    }
+
+    /** Acquire the locks for vertices U and V, in a fixed order. */
+    private void lock(int u, int v) {
+        int a = u & (_locks.length - 1), b = v & (_locks.length - 1);
+        _locks[Math.min(a, b)].lock();
+        if (a != b) {
+            _locks[Math.max(a, b)].lock();
+        }
+    }
+
+    /** Release the locks acquired by lock(U, V). */
+    private void unlock(int u, int v) {
+        stripe(u).unlock();
+        if (stripe(u) != stripe(v)) {
+            stripe(v).unlock();
+        }
+    }
+
+    /** Acquire every stripe lock. */
+    private void lockAll() {
+        for (ReentrantLock lock : _locks) {
+            lock.lock();
+        }
+    }
+
+    /** Release every stripe lock. */
+    private void unlockAll() {
+        for (ReentrantLock lock : _locks) {
+            lock.unlock();
+        }
+    }
+
+    /** Returns an unused edge id. */
+    private int newEdgeId() {
+        synchronized (_freeEdges) {
+            if (!_freeEdges.isEmpty()) {
+                return _freeEdges.poll();
+            }
+        }
+        return _nextEdge.incrementAndGet();
+    }
+
+    /** Make ID, the id of a removed edge, available for reuse. */
+    private void freeEdgeId(int id) {
+        synchronized (_freeEdges) {
+            _freeEdges.add(id);
+        }
+        _edgeSize.decrementAndGet();
+    }
+
+    /** The state of one vertex. */
+    private static class Vertex {
+        /** The successors of this vertex. */
+        private volatile Neighbors out = Neighbors.EMPTY;
+        /** The predecessors of this vertex. */
+        private volatile Neighbors in = Neighbors.EMPTY;
+    }
+
+    /** An immutable view of an adjacency list: TARGETS[0 .. SIZE-1], with
+     *  edge ids IDS[0 .. SIZE-1].  Adding an entry writes past SIZE in
+     *  the same arrays when there is room, which is invisible to
+     *  existing views; removing one always copies. */
+    private static final class Neighbors {
+        /** The empty list. */
+        static final Neighbors EMPTY = new Neighbors(new int[0], new int[0], 0);
+
+        /** A view of the first SIZE of TARGETS and IDS. */
+        Neighbors(int[] targets, int[] ids, int size) {
+            this.targets = targets;
+            this.ids = ids;
+            this.size = size;
+        }
+
+        /** Returns entry K, or 0 if there is none. */
+        int get(int k) {
+            return k >= 0 && k < size ? targets[k] : 0;
+        }
+
+        /** Returns the edge id of entry V, or 0 if V is absent. */
+        int id(int v) {
+            for (int k = 0; k < size; k += 1) {
+                if (targets[k] == v) {
+                    return ids[k];
+                }
+            }
+            return 0;
+        }
+
+        /** Returns the list formed by adding V, with edge id ID, to my
+         *  end.  Must be called only on the latest view of a list. */
+        Neighbors with(int v, int id) {
+            int[] t = targets, e = ids;
+            if (size == t.length) {
+                t = Arrays.copyOf(t, Math.max(4, 2 * size));
+                e = Arrays.copyOf(e, t.length);
+            }
+            t[size] = v;
+            e[size] = id;
+            return new Neighbors(t, e, size + 1);
+        }
+
+        /** Returns the list formed by removing V from me. */
+        Neighbors without(int v) {
+            int[] t = new int[Math.max(4, size)], e = new int[t.length];
+            int n;
+            n = 0;
+            for (int k = 0; k < size; k += 1) {
+                if (targets[k] != v) {
+                    t[n] = targets[k];
+                    e[n] = ids[k];
+                    n += 1;
+                }
+            }
+            return new Neighbors(t, e, n);
+        }
+
+        /** Returns an IntIteration over my entries. */
+        IntIteration iteration() {
+            return IntIteration.slice(targets, 0, size);
+        }
+
+        /** Returns an Iteration over the ids of my entries, in the same
+         *  order as iteration(). */
+        IntIteration ids() {
+            return IntIteration.slice(ids, 0, size);
+        }
+
+        /** The entries. */
+        final int[] targets;
+        /** The edge ids of the entries. */
+        final int[] ids;
+        /** The number of entries. */
+        final int size;
+    }
+
+    /** Initial size of the vertex table. */
+    private static final int INITIAL = 16;
+
+    /** Vertex table: _table.get(v) is vertex V, or null if none.  Replaced
+     *  (under _tableLock) when it must grow. */
+    private volatile AtomicReferenceArray<Vertex> _table;
+    /** Lock for changes to the vertex table and the fields below that
+     *  describe it. */
+    private final Object _tableLock = new Object();
+    /** Largest vertex number ever allocated. */
+    private int _end;
+    /** Removed vertex numbers available for reuse. */
+    private final IntHeap _free = new IntHeap();
+    /** My largest vertex number. */
+    private volatile int _maxVertex;
+    /** Number of my vertices. */
+    private final AtomicInteger _vertexSize = new AtomicInteger();
+
+    /** Stripe locks, indexed by vertex number modulo their number. */
+    private final ReentrantLock[] _locks;
+    /** Number of my edges. */
+    private final AtomicInteger _edgeSize = new AtomicInteger();
+    /** Largest edge id ever allocated. */
+    private final AtomicInteger _nextEdge = new AtomicInteger();
+    /** Removed edge ids available for reuse. */
+    private final IntHeap _freeEdges = new IntHeap();
+
+}
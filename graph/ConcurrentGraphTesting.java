@@ -0,0 +1,219 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Unit tests and a stress benchmark for ConcurrentDirectedGraph.  Run
+ *  the benchmark with
+ *      java graph.ConcurrentGraphTesting [VERTICES [SECONDS [THREADS]]]
+ *  @author Josh Rubin
+ */
+public class ConcurrentGraphTesting {
+
+    @Test
+    public void testSequential() {
+        ConcurrentDirectedGraph g = new ConcurrentDirectedGraph(2);
+        for (int i = 0; i < 40; i += 1) {
+            g.add();
+        }
+        assertEquals(40, g.maxVertex());
+        int e = g.add(1, 2);
+        assertEquals(e, g.add(1, 2));
+        g.add(1, 3);
+        g.add(3, 1);
+        g.add(2, 2);
+        assertEquals(4, g.edgeSize());
+        assertTrue(g.contains(3, 1));
+        assertFalse(g.contains(2, 1));
+        assertEquals(2, g.outDegree(1));
+        assertEquals(3, g.successor(1, 1));
+        assertEquals(3, g.predecessor(1, 0));
+        g.remove(1);
+        assertFalse(g.contains(1));
+        assertEquals(1, g.edgeSize());
+        assertEquals(0, g.inDegree(3));
+        assertEquals(1, g.add());
+        assertEquals(e, g.add(2, 1));
+        g.remove(40);
+        assertEquals(39, g.maxVertex());
+    }
+
+    @Test
+    public void testWrappers() {
+        LabeledGraph<String, Integer> g =
+            new LabeledGraph<>(new ConcurrentDirectedGraph());
+        int a = g.add("a"), b = g.add("b"), c = g.add("c");
+        g.add(a, b, 1);
+        g.add(b, c, 2);
+        assertEquals("c", g.getLabel(c));
+        assertEquals((Integer) 2, g.getLabel(b, c));
+        final ArrayList<Integer> order = new ArrayList<>();
+        Traversal t = new BreadthFirstTraversal(g) {
+            @Override
+            protected boolean visit(int v) {
+                order.add(v);
+                return true;
+            }
+        };
+        t.traverse(a);
+        assertEquals(3, order.size());
+        assertEquals((Integer) c, order.get(2));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        final int n = 200, threads = 4, rounds = 4000;
+        final ConcurrentDirectedGraph g = new ConcurrentDirectedGraph(8);
+        for (int i = 0; i < n; i += 1) {
+            g.add();
+        }
+        final AtomicBoolean failed = new AtomicBoolean();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t += 1) {
+            final int seed = t;
+            workers[t] = new Thread() {
+                @Override
+                public void run() {
+                    Random r = new Random(seed);
+                    for (int i = 0; i < rounds; i += 1) {
+                        int u = 1 + r.nextInt(n), v = 1 + r.nextInt(n);
+                        if (r.nextInt(3) == 0) {
+                            g.remove(u, v);
+                        } else if (g.add(u, v) == 0) {
+                            failed.set(true);
+                        }
+                        int k;
+                        k = 0;
+                        for (int w : g.successorsInt(u)) {
+                            if (w < 1 || w > n) {
+                                failed.set(true);
+                            }
+                            k += 1;
+                        }
+                        if (k > n) {
+                            failed.set(true);
+                        }
+                    }
+                }
+            };
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        assertFalse(failed.get());
+        int edges, ins;
+        edges = ins = 0;
+        for (int v = 1; v <= n; v += 1) {
+            for (int w : g.successorsInt(v)) {
+                assertTrue(g.contains(v, w));
+                edges += 1;
+            }
+            ins += g.inDegree(v);
+        }
+        assertEquals(g.edgeSize(), edges);
+        assertEquals(edges, ins);
+    }
+
+    /** Run a mixed read/write load against a ConcurrentDirectedGraph and
+     *  against a DirectedGraph guarded by a single lock, for 1, 2, 4, ...
+     *  threads up to the number of processors.  ARGS may give the number
+     *  of vertices, the seconds to spend on each run, and the maximum
+     *  number of threads. */
+    public static void main(String... args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        double secs = args.length > 1 ? Double.parseDouble(args[1]) : 2.0;
+        int cpus = args.length > 2 ? Integer.parseInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+        System.out.printf("%8s %16s %16s%n", "threads", "striped ops/s",
+                          "locked ops/s");
+        for (int t = 1; t <= Math.max(cpus, 1); t *= 2) {
+            System.out.printf("%8d %16.0f %16.0f%n", t,
+                              run(new ConcurrentDirectedGraph(), false,
+                                  n, t, secs),
+                              run(new DirectedGraph(), true, n, t, secs));
+        }
+    }
+
+    /** Fill G with N vertices and run THREADS threads for SECS seconds,
+     *  each doing nine reads (successor scans and contains(u, v)) for
+     *  every add or remove of an edge.  If LOCKED, every operation holds
+     *  G's monitor.  Returns the operations completed per second. */
+    private static double run(final Graph g, final boolean locked,
+                              final int n, int threads, double secs)
+        throws InterruptedException {
+        for (int i = 0; i < n; i += 1) {
+            g.add();
+        }
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicLong ops = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t += 1) {
+            final int seed = t;
+            workers[t] = new Thread() {
+                @Override
+                public void run() {
+                    Random r = new Random(seed);
+                    long k, sum;
+                    k = sum = 0;
+                    while (!stop.get()) {
+                        int u = 1 + r.nextInt(n), v = 1 + r.nextInt(n);
+                        int op = r.nextInt(10);
+                        if (locked) {
+                            synchronized (g) {
+                                sum += step(g, op, u, v);
+                            }
+                        } else {
+                            sum += step(g, op, u, v);
+                        }
+                        k += 1;
+                    }
+                    ops.addAndGet(k);
+                    _sink = sum;
+                }
+            };
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) {
+            w.start();
+        }
+        Thread.sleep((long) (secs * 1000));
+        stop.set(true);
+        for (Thread w : workers) {
+            w.join();
+        }
+        return ops.get() / ((System.nanoTime() - start) * 1e-9);
+    }
+
+    /** Perform operation OP (0 .. 9) of the benchmark on G with vertices
+     *  U and V, returning a value that depends on the result. */
+    private static int step(Graph g, int op, int u, int v) {
+        switch (op) {
+        case 0:
+            g.add(u, v);
+            return 0;
+        case 1:
+            g.remove(u, v);
+            return 0;
+        case 2: case 3: case 4:
+            return g.contains(u, v) ? 1 : 0;
+        default:
+            int s;
+            s = 0;
+            for (int w : g.successorsInt(u)) {
+                s += w;
+            }
+            return s;
+        }
+    }
+
+    /** Receives results of the benchmark so that they are not optimized
+     *  away. */
+    private static volatile long _sink;
+
+}
@@ -1,6 +1,4 @@
 package graph;
-import java.util.ArrayList;
-import java.util.Iterator;
 /* See restrictions in Graph.java. */
 
 /** Represents a general unlabeled directed graph whose vertices are denoted by
@@ -10,6 +8,16 @@ import java.util.Iterator;
  */
 public class DirectedGraph extends GraphObj {
 
+    /** An empty directed graph with LINKED adjacency lists. */
+    public DirectedGraph() {
+    }
+
+    /** An empty directed graph whose adjacency lists are represented as
+     *  specified by STORAGE. */
+    public DirectedGraph(Storage storage) {
+        super(storage);
+    }
+
     @Override
     public boolean isDirected() {
         return true;
@@ -17,17 +25,15 @@ public class DirectedGraph extends GraphObj {
 
     @Override
     public int inDegree(int v) {
-        if ((getPreds().size() > v && getPreds().get(v) != null)) {
-            return getPreds().get(v).size();
-        } else {
-            return 0;
-        }
+        AdjList in = getPreds().get(v);
+        return in == null ? 0 : in.size();
     }
 
     @Override
     public int predecessor(int v, int k) {
-        if ((getPreds().size() > v && getPreds().get(v) != null)) {
-            return getPreds().get(v).get(k);
+        AdjList in = getPreds().get(v);
+        if (in != null && k >= 0 && k < in.size()) {
+            return getPreds().get(v, k);
         } else {
             return 0;
         }
@@ -35,14 +41,6 @@ public class DirectedGraph extends GraphObj {
 
     @Override
     public Iteration<Integer> predecessors(int v) {
-        if (preds.get(v) == null) {
-            ArrayList<Integer> empty = new ArrayList<Integer>();
-            Iterator<Integer> it = empty.iterator();
-            Iteration<Integer> iteration = Iteration.iteration(it);
-            return iteration;
-        }
-        Iteration<Integer> it = Iteration.iteration
-                (getPreds().get(v).iterator());
-        return it;
+        return predecessorsInt(v);
     }
 }
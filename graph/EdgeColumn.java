@@ -0,0 +1,235 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/* See restrictions in Graph.java. */
+
+/** One field of the labels of the edges of a LabeledGraph, stored as an
+ *  array of primitive values indexed by edge id rather than in a label
+ *  object per edge.  A record of several fields can be kept as several
+ *  columns, which take a few bytes per edge each (instead of an object
+ *  header, references, and boxed fields), and a computation that needs
+ *  only one field reads only its column.  Columns are created by the
+ *  LabeledGraph whose edges they describe, which resets an edge's entry
+ *  in all its columns when the edge is removed, so that every new edge
+ *  starts with the default value of each column (0, or null).
+ *  @author Josh Rubin
+ */
+public abstract class EdgeColumn {
+
+    /** A column describing the edges of G. */
+    EdgeColumn(Graph G) {
+        _G = G;
+    }
+
+    /** Reset the entry for the edge whose id is E to its default
+     *  value. */
+    abstract void clear(int e);
+
+    /** Returns the id of the edge (U, V) of my graph, which must
+     *  exist. */
+    int id(int u, int v) {
+        int e = _G.edgeId(u, v);
+        if (e == 0) {
+            throw new IllegalArgumentException("no such edge");
+        }
+        return e;
+    }
+
+    /** Returns a capacity for an array that must hold index E and
+     *  currently has length N. */
+    static int grow(int e, int n) {
+        return Math.max(e + 1, Math.max(16, 2 * n));
+    }
+
+    /** A column of doubles. */
+    public static class Doubles extends EdgeColumn {
+        /** A column for the edges of G. */
+        Doubles(Graph G) {
+            super(G);
+        }
+
+        /** Returns the value for the edge (U, V). */
+        public double get(int u, int v) {
+            return value(id(u, v));
+        }
+
+        /** Set the value for the edge (U, V) to X. */
+        public void set(int u, int v, double x) {
+            put(id(u, v), x);
+        }
+
+        /** Returns the value for the edge whose id is E. */
+        double value(int e) {
+            return e < _values.length ? _values[e] : 0.0;
+        }
+
+        /** Set the value for the edge whose id is E to X. */
+        void put(int e, double x) {
+            if (e >= _values.length) {
+                if (x == 0.0) {
+                    return;
+                }
+                _values = Arrays.copyOf(_values, grow(e, _values.length));
+            }
+            _values[e] = x;
+        }
+
+        @Override
+        void clear(int e) {
+            if (e < _values.length) {
+                _values[e] = 0.0;
+            }
+        }
+
+        /** Values, indexed by edge id. */
+        private double[] _values = new double[0];
+    }
+
+    /** A column of ints. */
+    public static class Ints extends EdgeColumn {
+        /** A column for the edges of G. */
+        Ints(Graph G) {
+            super(G);
+        }
+
+        /** Returns the value for the edge (U, V). */
+        public int get(int u, int v) {
+            int e = id(u, v);
+            return e < _values.length ? _values[e] : 0;
+        }
+
+        /** Set the value for the edge (U, V) to X. */
+        public void set(int u, int v, int x) {
+            int e = id(u, v);
+            if (e >= _values.length) {
+                _values = Arrays.copyOf(_values, grow(e, _values.length));
+            }
+            _values[e] = x;
+        }
+
+        @Override
+        void clear(int e) {
+            if (e < _values.length) {
+                _values[e] = 0;
+            }
+        }
+
+        /** Values, indexed by edge id. */
+        private int[] _values = new int[0];
+    }
+
+    /** A column of values of the enumerated type E, stored as
+     *  ordinals. */
+    public static class Enums<E extends Enum<E>> extends EdgeColumn {
+        /** A column of values of type TYPE for the edges of G. */
+        Enums(Graph G, Class<E> type) {
+            super(G);
+            _constants = type.getEnumConstants();
+        }
+
+        /** Returns the value for the edge (U, V), or null if none has
+         *  been set. */
+        public E get(int u, int v) {
+            int e = id(u, v);
+            if (e >= _values.length || _values[e] == 0) {
+                return null;
+            }
+            return _constants[_values[e] - 1];
+        }
+
+        /** Set the value for the edge (U, V) to X. */
+        public void set(int u, int v, E x) {
+            int e = id(u, v);
+            if (e >= _values.length) {
+                _values = Arrays.copyOf(_values, grow(e, _values.length));
+            }
+            _values[e] = x == null ? 0 : x.ordinal() + 1;
+        }
+
+        @Override
+        void clear(int e) {
+            if (e < _values.length) {
+                _values[e] = 0;
+            }
+        }
+
+        /** The constants of my type, indexed by ordinal. */
+        private final E[] _constants;
+        /** One plus the ordinals of my values (0 for null), indexed by
+         *  edge id. */
+        private int[] _values = new int[0];
+    }
+
+    /** A column of Strings, each of which is stored once, in a table of
+     *  distinct strings, and referred to by its index there.  Two edges
+     *  have equal strings iff they have the same stringId. */
+    public static class Strings extends EdgeColumn {
+        /** A column for the edges of G. */
+        Strings(Graph G) {
+            super(G);
+            _strings.add(null);
+        }
+
+        /** Returns the value for the edge (U, V). */
+        public String get(int u, int v) {
+            return _strings.get(stringId(u, v));
+        }
+
+        /** Returns the index of the value for the edge (U, V) in my table
+         *  of distinct strings, which is 0 for null. */
+        public int stringId(int u, int v) {
+            int e = id(u, v);
+            return e < _values.length ? _values[e] : 0;
+        }
+
+        /** Set the value for the edge (U, V) to X. */
+        public void set(int u, int v, String x) {
+            int e = id(u, v);
+            if (e >= _values.length) {
+                _values = Arrays.copyOf(_values, grow(e, _values.length));
+            }
+            _values[e] = intern(x);
+        }
+
+        /** Returns the number of distinct non-null strings I have
+         *  held. */
+        public int distinct() {
+            return _strings.size() - 1;
+        }
+
+        /** Returns the index of X in _strings, adding it if needed. */
+        private int intern(String x) {
+            if (x == null) {
+                return 0;
+            }
+            Integer k = _ids.get(x);
+            if (k == null) {
+                k = _strings.size();
+                _strings.add(x);
+                _ids.put(x, k);
+            }
+            return k;
+        }
+
+        @Override
+        void clear(int e) {
+            if (e < _values.length) {
+                _values[e] = 0;
+            }
+        }
+
+        /** The distinct strings, with null at index 0. */
+        private final ArrayList<String> _strings = new ArrayList<>();
+        /** Maps each string to its index in _strings. */
+        private final HashMap<String, Integer> _ids = new HashMap<>();
+        /** Indices in _strings of my values, indexed by edge id. */
+        private int[] _values = new int[0];
+    }
+
+    /** The graph whose edges I describe. */
+    private final Graph _G;
+
+}
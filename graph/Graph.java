@@ -1,10 +1,18 @@
 package graph;
 
-/* Do not add or remove public or protected members, or modify the signatures of
- * any public methods.  Do not add or remove public classes.
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/* Do not remove public or protected members, or modify the signatures of
+ * any public methods.  Do not remove public classes.  Public members may be
+ * added to Graph only with default implementations in terms of its existing
+ * methods (as verticesInt, snapshot, and vertexStream are), so that no
+ * implementation of Graph outside this package has to change.  New public
+ * classes (such as IntIteration) may be added alongside the existing ones.
  *
- * You may make changes that don't affect the API (much) as seen from outside
- * the graph package:
+ * Beyond that, you may make changes that don't affect the API (much) as seen
+ * from outside the graph package:
  *   + You may make methods in GraphObj abstract, if you want different
  *     implementations in DirectedGraph and UndirectedGraph.
  *   + You may add bodies to abstract methods, modify existing bodies,
@@ -108,6 +116,38 @@ public abstract class Graph {
         return successors(v);
     }
 
+    /** Returns an IntIteration over all vertices in numerical order.
+     *  This is the same as vertices(), but delivers unboxed ints. */
+    public IntIteration verticesInt() {
+        return IntIteration.unboxing(vertices());
+    }
+
+    /** Returns an IntIteration over all successors of V, in the same
+     *  order as successors(V). */
+    public IntIteration successorsInt(int v) {
+        return IntIteration.unboxing(successors(v));
+    }
+
+    /** Returns an IntIteration over all predecessors of V, in the same
+     *  order as predecessors(V). */
+    public IntIteration predecessorsInt(int v) {
+        return IntIteration.unboxing(predecessors(v));
+    }
+
+    /** Returns a Stream of all my vertices, in numerical order.  When
+     *  made parallel, the stream divides the range of vertex numbers
+     *  among threads, so I must not be modified while it is in use. */
+    public Stream<Integer> vertexStream() {
+        return vertexIntStream().boxed();
+    }
+
+    /** Returns vertexStream() as an IntStream, which does not box the
+     *  vertices. */
+    public IntStream vertexIntStream() {
+        return StreamSupport.intStream(GraphSpliterators.vertices(this),
+                                       false);
+    }
+
     /** Returns an iteration over all edges in me.  Edges are returned
      *  as two-element arrays (u, v), which are directed if the graph
      *  is.  The values in the array returned by .next() may have changed
@@ -115,6 +155,26 @@ public abstract class Graph {
      *  array to return all results). */
     public abstract Iteration<int[]> edges();
 
+    /** Returns a Stream of all edges in me, as two-element arrays
+     *  (u, v) delivered in the same order as by edges().  Unlike edges(),
+     *  it delivers a new array for each edge.  When made parallel, the
+     *  stream divides the range of the vertices u among threads, so I
+     *  must not be modified while it is in use. */
+    public Stream<int[]> edgeStream() {
+        return StreamSupport.stream(GraphSpliterators.edges(this), false);
+    }
+
+    /** Returns an unmodifiable Graph with my current vertices and edges,
+     *  which my later changes do not affect.  Vertex numbers, edge ids
+     *  (so that a LabeledGraph's labels may be looked up by them), and
+     *  the order of each vertex's successors and predecessors, are the
+     *  same as mine.  By default this is a CSRGraph copy, which takes time
+     *  proportional to my size; implementations that can share structure
+     *  with their snapshots override it. */
+    public Graph snapshot() {
+        return new CSRGraph(this);
+    }
+
     /* Non-public methods for internal use. */
 
     /** Throw exception if V is not one of my vertices. */
@@ -132,4 +192,37 @@ public abstract class Graph {
      *  add(u, v). */
     protected abstract int edgeId(int u, int v);
 
+    /** Returns an IntIteration over the edge ids of the edges from V to
+     *  each of its successors, in the same order as successorsInt(V).
+     *  Implementations that store ids with their adjacency lists
+     *  override this; by default it is lookupIds(V). */
+    IntIteration successorIds(int v) {
+        return lookupIds(v);
+    }
+
+    /** Returns a number that changes whenever my vertices or edges do,
+     *  or -1 if I cannot tell when they change.  Views that keep copies
+     *  of me (such as SubgraphView) compare stamps to decide whether a
+     *  copy is still current.  By default -1. */
+    long stamp() {
+        return -1;
+    }
+
+    /** Returns an IntIteration delivering edgeId(V, W) for each W
+     *  delivered by successorsInt(V). */
+    final IntIteration lookupIds(final int v) {
+        final IntIteration succs = successorsInt(v);
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                return succs.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return edgeId(v, succs.nextInt());
+            }
+        };
+    }
+
 }
@@ -0,0 +1,221 @@
+package graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/* See restrictions in Graph.java. */
+
+/** Reads and writes graphs in a binary file format that can be served
+ *  directly from memory.  A file consists of 4-byte little-endian
+ *  integers:
+ *
+ *      MAGIC, VERSION, FLAGS, VERTEXSIZE, MAXVERTEX, EDGESIZE,
+ *      NSUCC, NPRED,
+ *      BITS[MAXVERTEX / 32 + 1],
+ *      OUT[MAXVERTEX + 2], SUCC[NSUCC],
+ *      IN[MAXVERTEX + 2], PRED[NPRED]
+ *
+ *  where bit 0 of FLAGS is set for a directed graph, and the arrays are
+ *  as described in OffHeapGraph.  An undirected graph omits IN and PRED
+ *  (and NPRED is 0).  Mapping a file takes time independent of its size:
+ *  pages are read only as they are used, and are shared through the
+ *  operating system's page cache by all processes that map the same
+ *  file.
+ *  @author Josh Rubin
+ */
+public class GraphFile {
+
+    /** Write G to FILE, replacing any previous contents. */
+    public static void write(Graph G, File file) throws IOException {
+        int maxVertex = G.maxVertex();
+        int nsucc = total(G, true),
+            npred = G.isDirected() ? total(G, false) : 0;
+        try (FileChannel out =
+             FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                              StandardOpenOption.WRITE,
+                              StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer w = new Writer(out);
+            w.put(MAGIC);
+            w.put(VERSION);
+            w.put(G.isDirected() ? DIRECTED : 0);
+            w.put(G.vertexSize());
+            w.put(maxVertex);
+            w.put(G.edgeSize());
+            w.put(nsucc);
+            w.put(npred);
+            int word, v;
+            word = 0;
+            v = 0;
+            for (int u : G.vertices()) {
+                while (v < (u & ~31)) {
+                    w.put(word);
+                    word = 0;
+                    v += 32;
+                }
+                word |= 1 << (u & 31);
+            }
+            for (; v <= maxVertex; v += 32) {
+                w.put(word);
+                word = 0;
+            }
+            writeCSR(G, w, true);
+            if (G.isDirected()) {
+                writeCSR(G, w, false);
+            }
+            w.flush();
+        }
+    }
+
+    /** Returns a read-only Graph served from the contents of FILE, which
+     *  must have been written by write.  The file is mapped into memory,
+     *  not read; it should not be changed while the graph is in use.  The
+     *  mapping is released when the result is closed. */
+    public static OffHeapGraph map(File file) throws IOException {
+        try (FileChannel in =
+             FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = in.size();
+            if (length < HEADER * 4) {
+                throw new IOException("not a graph file: " + file);
+            }
+            ByteBuffer buf =
+                ByteBuffer.allocate(HEADER * 4).order(ByteOrder.LITTLE_ENDIAN);
+            while (buf.hasRemaining() && in.read(buf) >= 0) {
+                continue;
+            }
+            IntBuffer header = buf.flip().asIntBuffer();
+            if (header.get(0) != MAGIC) {
+                throw new IOException("not a graph file: " + file);
+            }
+            if (header.get(1) != VERSION) {
+                throw new IOException("unsupported graph file version "
+                                      + header.get(1) + ": " + file);
+            }
+            boolean directed = (header.get(2) & DIRECTED) != 0;
+            int vertexSize = header.get(3), maxVertex = header.get(4),
+                edgeSize = header.get(5), nsucc = header.get(6),
+                npred = header.get(7);
+            long need = (long) HEADER + maxVertex / 32 + 1 + maxVertex + 2 + nsucc;
+            if (directed) {
+                need += maxVertex + 2 + npred;
+            }
+            if (maxVertex < 0 || nsucc < 0 || npred < 0
+                || (!directed && npred != 0) || need * 4 != length) {
+                throw new IOException("corrupt graph file: " + file);
+            }
+
+            long pos = HEADER;
+            MappedByteBuffer bits = map(in, pos, maxVertex / 32 + 1);
+            pos += maxVertex / 32 + 1;
+            MappedByteBuffer out = map(in, pos, maxVertex + 2);
+            pos += maxVertex + 2;
+            MappedByteBuffer succ = map(in, pos, nsucc);
+            pos += nsucc;
+            if (!directed) {
+                IntBuffer outs = out.asIntBuffer(), succs = succ.asIntBuffer();
+                return new OffHeapGraph(false, vertexSize, edgeSize,
+                                        maxVertex, bits.asIntBuffer(),
+                                        outs, succs, outs, succs,
+                                        bits, out, succ);
+            }
+            MappedByteBuffer ins = map(in, pos, maxVertex + 2);
+            pos += maxVertex + 2;
+            MappedByteBuffer pred = map(in, pos, npred);
+            return new OffHeapGraph(true, vertexSize, edgeSize, maxVertex,
+                                    bits.asIntBuffer(), out.asIntBuffer(),
+                                    succ.asIntBuffer(), ins.asIntBuffer(),
+                                    pred.asIntBuffer(),
+                                    bits, out, succ, ins, pred);
+        }
+    }
+
+    /** Returns a read-only little-endian mapping of the N ints starting
+     *  at int position POS of IN. */
+    private static MappedByteBuffer map(FileChannel in, long pos, int n)
+        throws IOException {
+        MappedByteBuffer buf =
+            in.map(FileChannel.MapMode.READ_ONLY, pos * 4, n * 4L);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        return buf;
+    }
+
+    /** Returns the total of the out-degrees (if OUT) or in-degrees of
+     *  the vertices of G. */
+    private static int total(Graph G, boolean out) {
+        long n;
+        n = 0;
+        for (int v : G.vertices()) {
+            n += out ? G.outDegree(v) : G.inDegree(v);
+        }
+        if (n > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("graph too large");
+        }
+        return (int) n;
+    }
+
+    /** Write the offsets and targets of the successors (if OUT) or
+     *  predecessors of G to W. */
+    private static void writeCSR(Graph G, Writer w, boolean out)
+        throws IOException {
+        int k;
+        k = 0;
+        w.put(0);
+        for (int v = 1; v <= G.maxVertex() + 1; v += 1) {
+            w.put(k);
+            if (G.contains(v)) {
+                k += out ? G.outDegree(v) : G.inDegree(v);
+            }
+        }
+        for (int v : G.vertices()) {
+            for (int u : out ? G.successorsInt(v) : G.predecessorsInt(v)) {
+                w.put(u);
+            }
+        }
+    }
+
+    /** Buffered output of little-endian ints to a channel. */
+    private static class Writer {
+        /** A Writer to OUT. */
+        Writer(FileChannel out) {
+            _out = out;
+        }
+
+        /** Write X. */
+        void put(int x) throws IOException {
+            if (!_buf.hasRemaining()) {
+                flush();
+            }
+            _buf.putInt(x);
+        }
+
+        /** Write out everything buffered. */
+        void flush() throws IOException {
+            _buf.flip();
+            while (_buf.hasRemaining()) {
+                _out.write(_buf);
+            }
+            _buf.clear();
+        }
+
+        /** Destination channel. */
+        private final FileChannel _out;
+        /** Ints not yet written. */
+        private final ByteBuffer _buf =
+            ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** First int of every graph file ("GRPH"). */
+    static final int MAGIC = 0x47525048;
+    /** Version of the format written by this class. */
+    static final int VERSION = 1;
+    /** FLAGS bit for a directed graph. */
+    private static final int DIRECTED = 1;
+    /** Number of ints in the header. */
+    private static final int HEADER = 8;
+
+}
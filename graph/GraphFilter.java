@@ -96,21 +96,61 @@ public class GraphFilter extends Graph {
         return _G.predecessors(v);
     }
 
+    @Override
+    public IntIteration verticesInt() {
+        return _G.verticesInt();
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        return _G.successorsInt(v);
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        return _G.predecessorsInt(v);
+    }
+
     @Override
     public Iteration<int[]> edges() {
         return _G.edges();
     }
 
+    /** Returns a snapshot of my underlying graph.  Filters whose
+     *  vertices or edges differ from those of the underlying graph must
+     *  override this. */
+    @Override
+    public Graph snapshot() {
+        return _G.snapshot();
+    }
+
     @Override
     protected int edgeId(int u, int v) {
         return _G.edgeId(u, v);
     }
 
+    /** Returns the successor ids of my underlying graph.  Filters whose
+     *  successors or edge ids differ from those of the underlying graph
+     *  must override this. */
+    @Override
+    IntIteration successorIds(int v) {
+        return _G.successorIds(v);
+    }
+
     @Override
     protected void checkMyVertex(int v) {
         _G.checkMyVertex(v);
     }
 
+    /** Returns the stamp of my underlying graph, so that a chain of
+     *  filters has the stamp of the graph at its bottom.  Filters that
+     *  change only through the underlying graph need not override
+     *  this. */
+    @Override
+    long stamp() {
+        return _G.stamp();
+    }
+
     /** My underlying graph. */
     private final Graph _G;
 }
@@ -1,7 +1,7 @@
 package graph;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
 /* See restrictions in Graph.java. */
 
 /** A partial implementation of Graph containing elements common to
@@ -11,58 +11,40 @@ import java.util.Iterator;
  */
 abstract class GraphObj extends Graph {
 
-    /** A new, empty Graph. */
+    /** A new, empty Graph whose adjacency lists are LINKED. */
     GraphObj() {
-        graph = new ArrayList<LinkedList<Integer>>();
-        preds = new ArrayList<LinkedList<Integer>>();
+        this(Storage.LINKED);
+    }
+
+    /** A new, empty Graph whose adjacency lists are represented as
+     *  specified by STORAGE.  An undirected graph's successors and
+     *  predecessors are the same, so it keeps a single table of
+     *  adjacency lists, and preds is the same object as graph. */
+    GraphObj(Storage storage) {
+        _storage = storage;
+        graph = new AdjTable();
         graph.add(null);
-        preds.add(null);
+        if (isDirected()) {
+            preds = new AdjTable();
+            preds.add(null);
+        } else {
+            preds = graph;
+        }
     }
 
     @Override
     public int vertexSize() {
-        int count = 0;
-        for (int i = 0; i < graph.size(); i++) {
-            if (graph.get(i) != null) {
-                count++;
-            }
-        }
-        return count;
+        return _vertexSize;
     }
 
     @Override
     public int maxVertex() {
-        if (vertexSize() == 0) {
-            return 0;
-        }
-        for (int i = graph.size() - 1; i > 0; i--) {
-            if (graph.get(i) != null) {
-                return i;
-            }
-        }
-        return 0;
+        return _maxVertex;
     }
 
     @Override
     public int edgeSize() {
-        int count = 0;
-        int special = 0;
-        for (int i = 0; i < graph.size(); i++) {
-            if (graph.get(i) != null) {
-                for (Integer vertex : graph.get(i)) {
-                    if (!isDirected() && vertex == i) {
-                        special += 1;
-                    } else {
-                        count++;
-                    }
-                }
-            }
-        }
-        if (isDirected()) {
-            return count;
-        } else {
-            return special + (count / 2);
-        }
+        return _edgeSize;
     }
 
     @Override
@@ -70,11 +52,8 @@ abstract class GraphObj extends Graph {
 
     @Override
     public int outDegree(int v) {
-        if (graph.size() > v && graph.get(v) != null) {
-            return graph.get(v).size();
-        } else {
-            return 0;
-        }
+        AdjList out = graph.get(v);
+        return out == null ? 0 : out.size();
     }
 
     @Override
@@ -82,20 +61,13 @@ abstract class GraphObj extends Graph {
 
     @Override
     public boolean contains(int u) {
-        return graph.size() > u && graph.get(u) != null;
+        return u > 0 && graph.get(u) != null;
     }
 
     @Override
     public boolean contains(int u, int v) {
-        if (graph.size() > u && graph.size() > v
-                && graph.get(u) != null
-                && graph.get(v) != null) {
-            for (Integer vertex : graph.get(u)) {
-                if (vertex == v) {
-                    return true;
-                }
-            }
-            return false;
+        if (contains(u) && contains(v)) {
+            return graph.get(u).contains(v);
         } else {
             return false;
         }
@@ -103,88 +75,320 @@ abstract class GraphObj extends Graph {
 
     @Override
     public int add() {
-        for (int i = 1; i < graph.size(); i++) {
-            if (graph.get(i) == null) {
-                graph.set(i, new LinkedList<Integer>());
-                preds.set(i, new LinkedList<Integer>());
-                return i;
+        int v;
+        if (!_free.isEmpty()) {
+            v = _free.poll();
+            graph.set(v, _storage.newList());
+            if (isDirected()) {
+                preds.set(v, _storage.newList());
+            }
+        } else {
+            graph.add(_storage.newList());
+            if (isDirected()) {
+                preds.add(_storage.newList());
             }
+            v = graph.size() - 1;
         }
-        graph.add(new LinkedList<Integer>());
-        preds.add(new LinkedList<Integer>());
-        return graph.size() - 1;
+        _vertexSize += 1;
+        _maxVertex = Math.max(_maxVertex, v);
+        _version += 1;
+        return v;
     }
 
     @Override
     public int add(int u, int v) {
-        if (graph.get(u).contains(v)) {
-            return edgeId(u, v);
-        } else if (isDirected()) {
-            graph.get(u).add(v);
-            preds.get(v).add(u);
-            return edgeId(u, v);
-        } else {
-            graph.get(u).add(v);
-            if (!graph.get(v).contains(u)) {
-                graph.get(v).add(u);
-            }
-            preds.get(u).add(v);
-            if (!preds.get(v).contains(u)) {
-                preds.get(v).add(u);
-            }
-            return edgeId(u, v);
+        int id = graph.get(u).id(v);
+        if (id != 0) {
+            return id;
         }
+        id = newEdgeId();
+        graph.edit(u).add(v, id);
+        if (isDirected() || u != v) {
+            preds.edit(v).add(u, id);
+        }
+        _version += 1;
+        return id;
     }
 
     @Override
     public void remove(int v) {
-        graph.set(v, null);
-        preds.set(v, null);
-        for (int i = 0; i < preds.size(); i++) {
-            if (preds.get(i) != null) {
-                while (preds.get(i).contains((Integer) v)) {
-                    preds.get(i).remove((Integer) v);
+        if (!contains(v)) {
+            return;
+        }
+        AdjList out = graph.get(v), in = preds.get(v);
+        freeVertex(v);
+        IntIteration ids = out.ids();
+        for (int w : out.iteration()) {
+            freeEdgeId(ids.nextInt());
+            if (w != v) {
+                preds.edit(w).remove(v);
+            }
+        }
+        if (isDirected()) {
+            ids = in.ids();
+            for (int u : in.iteration()) {
+                int id = ids.nextInt();
+                if (u != v) {
+                    graph.edit(u).remove(v);
+                    freeEdgeId(id);
                 }
             }
         }
-        for (int i = 0; i < graph.size(); i++) {
-            if (graph.get(i) != null) {
-                while (graph.get(i).contains((Integer) v)) {
-                    graph.get(i).remove((Integer) v);
+    }
+
+    /** Remove each of VERTICES that is present, together with all
+     *  adjacent edges.  Has the same effect as removing them one at a
+     *  time, but each adjacency list that refers to them is compacted
+     *  just once. */
+    public void removeAll(int[] vertices) {
+        BitSet doomed = new BitSet(), touched = new BitSet();
+        for (int v : vertices) {
+            if (contains(v)) {
+                doomed.set(v);
+            }
+        }
+        for (int v = doomed.nextSetBit(0); v >= 0;
+             v = doomed.nextSetBit(v + 1)) {
+            IntIteration ids = graph.get(v).ids();
+            for (int w : graph.get(v).iteration()) {
+                int id = ids.nextInt();
+                touched.set(w);
+                if (isDirected() || !doomed.get(w) || v <= w) {
+                    freeEdgeId(id);
                 }
             }
+            if (isDirected()) {
+                ids = preds.get(v).ids();
+                for (int u : preds.get(v).iteration()) {
+                    int id = ids.nextInt();
+                    touched.set(u);
+                    if (!doomed.get(u)) {
+                        freeEdgeId(id);
+                    }
+                }
+            }
+        }
+        for (int v = doomed.nextSetBit(0); v >= 0;
+             v = doomed.nextSetBit(v + 1)) {
+            freeVertex(v);
+        }
+        touched.andNot(doomed);
+        for (int w = touched.nextSetBit(0); w >= 0;
+             w = touched.nextSetBit(w + 1)) {
+            graph.edit(w).removeAll(doomed);
+            if (isDirected()) {
+                preds.edit(w).removeAll(doomed);
+            }
+        }
+    }
+
+    /** Add N new vertices with no incident edges, numbered consecutively
+     *  from one past the highest vertex number ever allocated, and return
+     *  the first of them, or 0 if N is 0.  Unlike add(), this does not
+     *  reuse the numbers of removed vertices, so if the highest-numbered
+     *  vertices have been removed, the first new vertex may be greater
+     *  than maxVertex() + 1, leaving numbers for add() to reuse. */
+    public int addVertices(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative vertex count");
+        } else if (n == 0) {
+            return 0;
+        }
+        int first = graph.size();
+        graph.ensureCapacity(first + n);
+        if (isDirected()) {
+            preds.ensureCapacity(first + n);
+        }
+        for (int i = 0; i < n; i += 1) {
+            graph.add(_storage.newList());
+            if (isDirected()) {
+                preds.add(_storage.newList());
+            }
         }
+        _vertexSize += n;
+        _maxVertex = first + n - 1;
+        _version += 1;
+        return first;
+    }
+
+    /** Add the edges (FROM[i], TO[i]), for each i, in order, and return
+     *  an array whose element i is the id of edge i, as add(FROM[i],
+     *  TO[i]) would.  All the endpoints must be my vertices.  The effect
+     *  is the same as adding the edges one at a time, but the edges are
+     *  sorted by endpoint to find duplicates and to build each adjacency
+     *  list's additions in one piece. */
+    public int[] addEdges(int[] from, int[] to) {
+        int n = from.length;
+        if (to.length != n) {
+            throw new IllegalArgumentException("mismatched edge arrays");
+        }
+        int size = graph.size();
+        int[] order = new int[n], start = new int[size + 1];
+        for (int i = 0; i < n; i += 1) {
+            if (!contains(from[i]) || !contains(to[i])) {
+                throw new IllegalArgumentException("vertex not from Graph");
+            }
+            start[source(from[i], to[i]) + 1] += 1;
+        }
+        for (int u = 0; u < size; u += 1) {
+            start[u + 1] += start[u];
+        }
+        int[] next = Arrays.copyOf(start, size);
+        for (int i = 0; i < n; i += 1) {
+            int u = source(from[i], to[i]);
+            order[next[u]] = i;
+            next[u] += 1;
+        }
+
+        int[] ids = new int[n], first = new int[n];
+        int[] stamp = new int[size], where = new int[size];
+        for (int u = 1; u < size; u += 1) {
+            if (start[u] == start[u + 1]) {
+                continue;
+            }
+            IntIteration succs = graph.get(u).iteration(),
+                oldIds = graph.get(u).ids();
+            while (succs.hasNext()) {
+                int w = succs.nextInt();
+                stamp[w] = u;
+                where[w] = -oldIds.nextInt();
+            }
+            for (int k = start[u]; k < start[u + 1]; k += 1) {
+                int i = order[k];
+                int v = from[i] + to[i] - u;
+                if (stamp[v] != u) {
+                    stamp[v] = u;
+                    where[v] = i;
+                    first[i] = i;
+                } else if (where[v] < 0) {
+                    ids[i] = -where[v];
+                    first[i] = -1;
+                } else {
+                    first[i] = where[v];
+                }
+            }
+        }
+
+        for (int i = 0; i < n; i += 1) {
+            if (first[i] == i) {
+                ids[i] = newEdgeId();
+            } else if (first[i] >= 0) {
+                ids[i] = ids[first[i]];
+            }
+        }
+        if (isDirected()) {
+            appendAll(graph, from, to, ids, first);
+            appendAll(preds, to, from, ids, first);
+        } else {
+            int[] ends1 = new int[2 * n], ends2 = new int[2 * n],
+                ids2 = new int[2 * n], first2 = new int[2 * n];
+            for (int i = 0; i < n; i += 1) {
+                boolean added = first[i] == i;
+                ends1[2 * i] = ends2[2 * i + 1] = from[i];
+                ends2[2 * i] = ends1[2 * i + 1] = to[i];
+                ids2[2 * i] = ids2[2 * i + 1] = ids[i];
+                first2[2 * i] = added ? 2 * i : -1;
+                first2[2 * i + 1] =
+                    added && from[i] != to[i] ? 2 * i + 1 : -1;
+            }
+            appendAll(graph, ends1, ends2, ids2, first2);
+        }
+        _version += 1;
+        return ids;
+    }
+
+    /** For each i such that FIRST[i] == i, append TO[i], with edge id
+     *  IDS[i], to LISTS.get(FROM[i]).  The entries appended to each list
+     *  keep the order of their indices, and each list is extended by a
+     *  single call to AdjList.addAll. */
+    private static void appendAll(AdjTable lists, int[] from,
+                                  int[] to, int[] ids, int[] first) {
+        int n = from.length, size = lists.size();
+        int[] start = new int[size + 1];
+        for (int i = 0; i < n; i += 1) {
+            if (first[i] == i) {
+                start[from[i] + 1] += 1;
+            }
+        }
+        for (int u = 0; u < size; u += 1) {
+            start[u + 1] += start[u];
+        }
+        int[] next = Arrays.copyOf(start, size);
+        int[] targets = new int[start[size]], edgeIds = new int[start[size]];
+        for (int i = 0; i < n; i += 1) {
+            if (first[i] == i) {
+                int k = next[from[i]];
+                targets[k] = to[i];
+                edgeIds[k] = ids[i];
+                next[from[i]] = k + 1;
+            }
+        }
+        for (int u = 1; u < size; u += 1) {
+            if (start[u] < start[u + 1]) {
+                lists.edit(u).addAll(targets, edgeIds, start[u],
+                                     start[u + 1]);
+            }
+        }
+    }
+
+    /** Returns the endpoint of the edge (U, V) under which addEdges sorts
+     *  it: U if I am directed, and otherwise the smaller endpoint. */
+    private int source(int u, int v) {
+        return isDirected() ? u : Math.min(u, v);
     }
 
     @Override
     public void remove(int u, int v) {
-        graph.get(u).remove((Integer) v);
-        preds.get(v).remove((Integer) u);
-        if (!isDirected()) {
-            graph.get(v).remove((Integer) u);
-            preds.get(u).remove((Integer) v);
+        if (!contains(u) || !contains(v)) {
+            return;
+        }
+        int id = graph.get(u).id(v);
+        if (id == 0) {
+            return;
         }
+        graph.edit(u).remove(v);
+        if (isDirected() || u != v) {
+            preds.edit(v).remove(u);
+        }
+        freeEdgeId(id);
+        _version += 1;
     }
 
     @Override
     public Iteration<Integer> vertices() {
-        ArrayList<Integer> list = new ArrayList<Integer>();
-        for (int i = 1; i < graph.size(); i++) {
-            if (graph.get(i) != null) {
-                list.add(i);
+        return verticesInt();
+    }
+
+    @Override
+    public IntIteration verticesInt() {
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                while (_v < graph.size() && graph.get(_v) == null) {
+                    _v += 1;
+                }
+                return _v < graph.size();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _v += 1;
+                return _v - 1;
             }
-        }
-        Iterator<Integer> it = list.iterator();
-        Iteration<Integer> iteration = Iteration.iteration(it);
-        return iteration;
 
+            /** The next vertex number to examine. */
+            private int _v = 1;
+        };
     }
 
     @Override
     public int successor(int v, int k) {
         if (contains(v)) {
-            if (graph.get(v).size() > 0) {
-                return graph.get(v).get(k);
+            if (k >= 0 && k < graph.get(v).size()) {
+                return graph.get(v, k);
             }
         }
         return 0;
@@ -195,84 +399,195 @@ abstract class GraphObj extends Graph {
 
     @Override
     public Iteration<Integer> successors(int v) {
-        if (graph.get(v) == null) {
-            ArrayList<Integer> empty = new ArrayList<Integer>();
-            Iterator<Integer> it = empty.iterator();
-            Iteration<Integer> iteration = Iteration.iteration(it);
-            return iteration;
+        return successorsInt(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        return graph.get(v).iteration();
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
         }
-        Iterator<Integer> it = graph.get(v).iterator();
-        Iteration<Integer> iteration = Iteration.iteration(it);
-        return iteration;
+        return preds.get(v).iteration();
     }
 
     @Override
     public abstract Iteration<Integer> predecessors(int v);
 
+    @Override
+    IntIteration successorIds(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        return graph.get(v).ids();
+    }
+
+    /** Returns an Iteration over my edges that walks the adjacency
+     *  lists in place.  It uses a single array for all its results and
+     *  allocates nothing per edge.  Each edge of an undirected graph is
+     *  delivered once, as (U, V) with U <= V. */
     @Override
     public Iteration<int[]> edges() {
-        ArrayList<int[]> edges = new ArrayList<int[]>();
-        if (isDirected()) {
-            for (int i = 0; i < graph.size(); i++) {
-                if (graph.get(i) != null) {
-                    for (Integer vertex : graph.get(i)) {
-                        edges.add(new int[] {i, vertex});
+        return new Iteration<int[]>() {
+            @Override
+            public boolean hasNext() {
+                while (_v == 0) {
+                    if (_succ != null && _succ.hasNext()) {
+                        int v = _succ.nextInt();
+                        if (isDirected() || _u <= v) {
+                            _v = v;
+                        }
+                    } else if (_u + 1 < graph.size()) {
+                        _u += 1;
+                        AdjList out = graph.get(_u);
+                        _succ = out == null ? null : out.iteration();
+                    } else {
+                        return false;
                     }
                 }
+                return true;
             }
-        } else {
-            for (int i = 0; i < graph.size(); i++) {
-                if (graph.get(i) != null) {
-                    for (Integer vertex : graph.get(i)) {
-                        int[] edge = new int[] {i, vertex};
-                        if (!edges.contains(edge)) {
-                            edges.add(edge);
-                        }
-                    }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
                 }
+                _edge[0] = _u;
+                _edge[1] = _v;
+                _v = 0;
+                return _edge;
             }
-        }
-        Iterator<int[]> it = edges.iterator();
-        Iteration<int[]> iteration = Iteration.iteration(it);
-        return iteration;
+
+            /** The vertex whose outgoing edges are being delivered. */
+            private int _u;
+            /** The successors of _u not yet examined. */
+            private IntIteration _succ;
+            /** Target of the next edge to deliver, or 0 if not yet
+             *  found. */
+            private int _v;
+            /** The array returned by next(). */
+            private final int[] _edge = new int[2];
+        };
+    }
+
+    /** Returns an unmodifiable view of my current state, in constant
+     *  time.  My later changes copy whatever parts of my representation
+     *  they modify, so that the snapshot does not see them and may be
+     *  read by other threads while I change. */
+    @Override
+    public GraphSnapshot snapshot() {
+        AdjTable succ = graph.snapshot(),
+            pred = isDirected() ? preds.snapshot() : succ;
+        return new GraphSnapshot(isDirected(), succ, pred, _vertexSize,
+                                 _maxVertex, _edgeSize, _version);
+    }
+
+    /** Returns a number that increases whenever I change. */
+    public long version() {
+        return _version;
+    }
+
+    /** Returns version(). */
+    @Override
+    long stamp() {
+        return _version;
     }
 
     @Override
     protected void checkMyVertex(int v) {
     }
 
+    /** Returns the id stored with the edge (U, V) when it was added.
+     *  Ids are allocated densely, the smallest free one first, and are
+     *  recycled when edges are removed, so they never exceed the largest
+     *  number of edges the graph has held at one time. */
     @Override
-    /** Taken from CS61b Slack Group. Adaption of
-     * online algorithm that someone found. */
     protected int edgeId(int u, int v) {
-        if (contains(u, v)) {
-            if (!isDirected()) {
-                if (u > v) {
-                    int swap = v;
-                    v = u;
-                    u = swap;
-                }
-                return (v + (1 + v + u) * (v + u));
-            } else if (isDirected()) {
-                return (v + (1 + v + u) * (v + u));
-            } else {
-                return 0;
-            }
+        if (contains(u) && contains(v)) {
+            return graph.get(u).id(v);
         } else {
             return 0;
         }
     }
 
-    /** Access Preds from ArrayList.
-     * @return ArrayList<LinkedList<Integer>> */
-    protected ArrayList<LinkedList<Integer>> getPreds() {
+    /** Remove the vertex V from graph and preds and make its number
+     *  available for reuse. */
+    private void freeVertex(int v) {
+        graph.set(v, null);
+        if (isDirected()) {
+            preds.set(v, null);
+        }
+        _free.add(v);
+        _vertexSize -= 1;
+        _version += 1;
+        while (_maxVertex > 0 && graph.get(_maxVertex) == null) {
+            _maxVertex -= 1;
+        }
+    }
+
+    /** Returns the smallest edge id not currently in use, and counts
+     *  the edge to which it will be given. */
+    private int newEdgeId() {
+        _edgeSize += 1;
+        if (!_freeEdges.isEmpty()) {
+            return _freeEdges.poll();
+        }
+        _nextEdge += 1;
+        return _nextEdge;
+    }
+
+    /** Make the id ID of a removed edge available for reuse. */
+    private void freeEdgeId(int id) {
+        _freeEdges.add(id);
+        _edgeSize -= 1;
+    }
+
+    /** Access Preds from AdjTable.
+     * @return AdjTable */
+    protected AdjTable getPreds() {
         return preds;
     }
 
-    /** Representation of predecessors using ArrayList of LinkedLists. */
-    protected ArrayList<LinkedList<Integer>> preds;
+    /** Representation of predecessors using AdjTable of AdjLists; the
+     *  same as graph if I am undirected. */
+    protected AdjTable preds;
+
+    /** Representation of graph using AdjTable of AdjLists. */
+    protected AdjTable graph;
+
+    /** Representation of each AdjList in graph and preds. */
+    private final Storage _storage;
+
+    /** Removed vertex numbers less than graph.size(), available for
+     *  reuse by add(). */
+    private final IntHeap _free = new IntHeap();
+
+    /** Removed edge ids less than or equal to _nextEdge, available for
+     *  reuse by add(u, v). */
+    private final IntHeap _freeEdges = new IntHeap();
+
+    /** The largest edge id allocated so far. */
+    private int _nextEdge;
+
+    /** The number of my vertices. */
+    private int _vertexSize;
+
+    /** My largest vertex number, or 0 if I am empty. */
+    private int _maxVertex;
+
+    /** The number of my edges, counting each undirected edge (including
+     *  a self edge) once. */
+    private int _edgeSize;
 
-    /** Representation of graph using ArrayList of LinkedLists. */
-    protected ArrayList<LinkedList<Integer>> graph;
+    /** The number of changes made to me. */
+    private long _version;
 
 }
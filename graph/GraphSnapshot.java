@@ -0,0 +1,253 @@
+package graph;
+
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** An unmodifiable view of a DirectedGraph or UndirectedGraph as it was
+ *  at one moment, as returned by its snapshot() method.  A snapshot
+ *  shares its adjacency lists with the graph (see AdjTable), so taking
+ *  one takes constant time, and the graph afterwards copies only the
+ *  parts it modifies.  A snapshot may be read by any number of threads
+ *  while its graph continues to change in another.  Edge ids are those
+ *  of the graph at the time of the snapshot, so a LabeledGraph's labels
+ *  may be looked up by them.
+ *
+ *  Any attempt to modify a GraphSnapshot throws
+ *  UnsupportedOperationException.
+ *  @author Josh Rubin
+ */
+public class GraphSnapshot extends Graph {
+
+    /** A snapshot of a graph that is directed iff DIRECTED, and has
+     *  successor lists SUCC, predecessor lists PRED, VERTEXSIZE
+     *  vertices, largest vertex MAXVERTEX, EDGESIZE edges, and version
+     *  number VERSION. */
+    GraphSnapshot(boolean directed, AdjTable succ, AdjTable pred,
+                  int vertexSize, int maxVertex, int edgeSize,
+                  long version) {
+        _directed = directed;
+        _succ = succ;
+        _pred = pred;
+        _vertexSize = vertexSize;
+        _maxVertex = maxVertex;
+        _edgeSize = edgeSize;
+        _version = version;
+    }
+
+    /** Returns the version() of my graph at the time I was taken.  Two
+     *  snapshots of the same graph with the same version are equal. */
+    public long version() {
+        return _version;
+    }
+
+    @Override
+    public int vertexSize() {
+        return _vertexSize;
+    }
+
+    @Override
+    public int maxVertex() {
+        return _maxVertex;
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edgeSize;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return _directed;
+    }
+
+    @Override
+    public int outDegree(int v) {
+        AdjList out = _succ.get(v);
+        return out == null ? 0 : out.size();
+    }
+
+    @Override
+    public int inDegree(int v) {
+        AdjList in = _pred.get(v);
+        return in == null ? 0 : in.size();
+    }
+
+    @Override
+    public boolean contains(int u) {
+        return u > 0 && _succ.get(u) != null;
+    }
+
+    @Override
+    public boolean contains(int u, int v) {
+        return edgeId(u, v) != 0;
+    }
+
+    @Override
+    public int add() {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public int add(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public Iteration<Integer> vertices() {
+        return verticesInt();
+    }
+
+    @Override
+    public IntIteration verticesInt() {
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                while (_v <= _maxVertex && _succ.get(_v) == null) {
+                    _v += 1;
+                }
+                return _v <= _maxVertex;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _v += 1;
+                return _v - 1;
+            }
+
+            /** The next vertex number to examine. */
+            private int _v = 1;
+        };
+    }
+
+    @Override
+    public int successor(int v, int k) {
+        if (k >= 0 && k < outDegree(v)) {
+            return _succ.get(v, k);
+        }
+        return 0;
+    }
+
+    @Override
+    public int predecessor(int v, int k) {
+        if (k >= 0 && k < inDegree(v)) {
+            return _pred.get(v, k);
+        }
+        return 0;
+    }
+
+    @Override
+    public Iteration<Integer> successors(int v) {
+        return successorsInt(v);
+    }
+
+    @Override
+    public Iteration<Integer> predecessors(int v) {
+        return predecessorsInt(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        AdjList out = _succ.get(v);
+        return out == null ? IntIteration.empty() : out.iteration();
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        AdjList in = _pred.get(v);
+        return in == null ? IntIteration.empty() : in.iteration();
+    }
+
+    @Override
+    public Iteration<int[]> edges() {
+        return new Iteration<int[]>() {
+            @Override
+            public boolean hasNext() {
+                while (_v == 0) {
+                    if (_out != null && _out.hasNext()) {
+                        int v = _out.nextInt();
+                        if (_directed || _u <= v) {
+                            _v = v;
+                        }
+                    } else if (_u < _maxVertex) {
+                        _u += 1;
+                        _out = successorsInt(_u);
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _edge[0] = _u;
+                _edge[1] = _v;
+                _v = 0;
+                return _edge;
+            }
+
+            /** The vertex whose outgoing edges are being delivered. */
+            private int _u;
+            /** The successors of _u not yet examined. */
+            private IntIteration _out;
+            /** Target of the next edge to deliver, or 0 if not yet
+             *  found. */
+            private int _v;
+            /** The array returned by next(). */
+            private final int[] _edge = new int[2];
+        };
+    }
+
+    /** Returns me, since I never change. */
+    @Override
+    public Graph snapshot() {
+        return this;
+    }
+
+    @Override
+    protected int edgeId(int u, int v) {
+        if (contains(u) && contains(v)) {
+            return _succ.get(u).id(v);
+        }
+        return 0;
+    }
+
+    /** Returns 0, since I never change. */
+    @Override
+    long stamp() {
+        return 0;
+    }
+
+    /** True iff I am directed. */
+    private final boolean _directed;
+    /** Successor lists, indexed by vertex. */
+    private final AdjTable _succ;
+    /** Predecessor lists, indexed by vertex. */
+    private final AdjTable _pred;
+    /** Number of my vertices. */
+    private final int _vertexSize;
+    /** My largest vertex number. */
+    private final int _maxVertex;
+    /** Number of my edges. */
+    private final int _edgeSize;
+    /** The version of my graph when I was taken. */
+    private final long _version;
+
+}
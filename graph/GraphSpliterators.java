@@ -0,0 +1,193 @@
+package graph;
+
+/* See restrictions in Graph.java. */
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/** Spliterators over the vertices and edges of a Graph, which split by
+ *  dividing a range of vertex numbers in half, so that the streams
+ *  built on them may be processed in parallel.  Each part examines only
+ *  the vertices in its range (and their successors), using contains and
+ *  successorsInt, which must therefore be safe to call from several
+ *  threads at once while the graph is not being modified.  A graph
+ *  whose queries update its own state (such as SubgraphView, which
+ *  counts them) overrides its stream methods to stream over a graph that
+ *  does not.
+ *  @author Josh Rubin
+ */
+final class GraphSpliterators {
+
+    /** Not instantiable. */
+    private GraphSpliterators() {
+    }
+
+    /** Returns a Spliterator over the vertices of G, in increasing
+     *  order. */
+    static Spliterator.OfInt vertices(Graph G) {
+        return new Vertices(G, 1, G.maxVertex() + 1);
+    }
+
+    /** Returns a Spliterator over the edges of G, ordered as for
+     *  G.edges().  Unlike G.edges(), it delivers a new array for each
+     *  edge. */
+    static Spliterator<int[]> edges(Graph G) {
+        return new Edges(G, 1, G.maxVertex() + 1, -1);
+    }
+
+    /** A Spliterator over the vertices of a graph whose numbers lie in
+     *  a half-open range. */
+    private static class Vertices implements Spliterator.OfInt {
+        /** The vertices of G in the range [LO .. HI). */
+        Vertices(Graph G, int lo, int hi) {
+            _G = G;
+            _lo = lo;
+            _hi = hi;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (_lo < _hi) {
+                int v = _lo;
+                _lo += 1;
+                if (_G.contains(v)) {
+                    action.accept(v);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int hi = _hi;
+            for (int v = _lo; v < hi; v += 1) {
+                if (_G.contains(v)) {
+                    action.accept(v);
+                }
+            }
+            _lo = hi;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (_hi - _lo < MIN_VERTICES) {
+                return null;
+            }
+            int mid = (_lo + _hi) >>> 1;
+            Vertices prefix = new Vertices(_G, _lo, mid);
+            _lo = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return _hi - _lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL;
+        }
+
+        /** The graph. */
+        private final Graph _G;
+        /** The next vertex number to examine. */
+        private int _lo;
+        /** The end of my range. */
+        private final int _hi;
+    }
+
+    /** A Spliterator over the edges of a graph whose first vertices lie
+     *  in a half-open range.  In an undirected graph, each edge (U, V)
+     *  is delivered once, with U <= V. */
+    private static class Edges implements Spliterator<int[]> {
+        /** The edges of G leaving vertices in the range [LO .. HI), of
+         *  which there are about SIZE, or an unknown number if SIZE is
+         *  negative. */
+        Edges(Graph G, int lo, int hi, long size) {
+            _G = G;
+            _lo = lo;
+            _hi = hi;
+            _size = size;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            while (true) {
+                if (_succs != null) {
+                    while (_succs.hasNext()) {
+                        int v = _succs.nextInt();
+                        if (_G.isDirected() || _u <= v) {
+                            action.accept(new int[] { _u, v });
+                            return true;
+                        }
+                    }
+                    _succs = null;
+                }
+                if (_lo >= _hi) {
+                    return false;
+                }
+                _u = _lo;
+                _lo += 1;
+                if (_G.contains(_u)) {
+                    _succs = _G.successorsInt(_u);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            if (_hi - _lo < MIN_SOURCES) {
+                return null;
+            }
+            int mid = (_lo + _hi) >>> 1;
+            long size = estimateSize();
+            long half = size * (mid - _lo) / (_hi - _lo);
+            Edges prefix = new Edges(_G, _lo, mid, half);
+            _size = size - half;
+            prefix._u = _u;
+            prefix._succs = _succs;
+            _succs = null;
+            _lo = mid;
+            return prefix;
+        }
+
+        /** Returns about how many edges I had when created or last
+         *  split.  Only the first spliterator asks my graph, since
+         *  edgeSize() may take time proportional to its size; its parts
+         *  divide its estimate in proportion to their ranges. */
+        @Override
+        public long estimateSize() {
+            if (_size < 0) {
+                _size = _G.edgeSize();
+            }
+            return _size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        /** The graph. */
+        private final Graph _G;
+        /** The next source vertex number to examine. */
+        private int _lo;
+        /** The end of my range of sources. */
+        private final int _hi;
+        /** Estimated number of my edges, or -1 if not yet computed. */
+        private long _size;
+        /** The source vertex whose edges are being delivered. */
+        private int _u;
+        /** The successors of _u not yet examined, or null if none. */
+        private IntIteration _succs;
+    }
+
+    /** The smallest range of vertex numbers that Vertices will split. */
+    private static final int MIN_VERTICES = 1 << 10;
+    /** The smallest range of source vertices that Edges will split. */
+    private static final int MIN_SOURCES = 1 << 6;
+
+}
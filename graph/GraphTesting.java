@@ -1,5 +1,11 @@
 package graph;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -111,4 +117,984 @@ public class GraphTesting {
         assertEquals(0, x.edgeSize());
     }
 
+    @Test
+    public void testCSRGraph() {
+        DirectedGraph g = new DirectedGraph();
+        for (int i = 0; i < 5; i += 1) {
+            g.add();
+        }
+        g.add(1, 3);
+        g.add(1, 2);
+        g.add(4, 2);
+        g.add(3, 3);
+        g.remove(5);
+        CSRGraph c = new CSRGraph(g);
+        assertEquals(4, c.vertexSize());
+        assertEquals(4, c.maxVertex());
+        assertEquals(4, c.edgeSize());
+        assertEquals(3, c.successor(1, 0));
+        assertEquals(2, c.successor(1, 1));
+        assertEquals(0, c.successor(1, 2));
+        assertEquals(4, c.predecessor(2, 1));
+        assertEquals(2, c.inDegree(2));
+        assertTrue(c.contains(3, 3));
+        assertFalse(c.contains(2, 1));
+        assertFalse(c.contains(5));
+        int n = 0;
+        for (int[] e : c.edges()) {
+            assertTrue(g.contains(e[0], e[1]));
+            n += 1;
+        }
+        assertEquals(4, n);
+    }
+
+    @Test
+    public void testCSRUndirected() {
+        UndirectedGraph g = new UndirectedGraph();
+        for (int i = 0; i < 4; i += 1) {
+            g.add();
+        }
+        g.add(1, 2);
+        g.add(3, 1);
+        g.add(4, 4);
+        CSRGraph c = new CSRGraph(g);
+        assertEquals(3, c.edgeSize());
+        assertEquals(c.edgeId(1, 3), c.edgeId(3, 1));
+        assertEquals(1, c.predecessor(3, 0));
+        int n = 0;
+        for (int[] e : c.edges()) {
+            assertTrue(e[0] <= e[1]);
+            n += 1;
+        }
+        assertEquals(3, n);
+    }
+
+    @Test
+    public void testArrayStorage() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        for (int i = 0; i < 6; i += 1) {
+            g.add();
+        }
+        for (int v = 2; v <= 6; v += 1) {
+            g.add(1, v);
+        }
+        g.add(1, 3);
+        assertEquals(5, g.outDegree(1));
+        g.remove(1, 4);
+        g.remove(6);
+        assertEquals(3, g.outDegree(1));
+        assertEquals(2, g.successor(1, 0));
+        assertEquals(3, g.successor(1, 1));
+        assertEquals(5, g.successor(1, 2));
+        assertEquals(0, g.successor(1, 3));
+        assertEquals(1, g.predecessor(5, 0));
+        assertEquals(0, g.predecessor(5, 1));
+    }
+
+    @Test
+    public void testHighDegree() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        int hub = g.add();
+        for (int i = 0; i < 1000; i += 1) {
+            g.add(hub, g.add());
+            g.add(hub, hub + 1);
+        }
+        assertEquals(1000, g.outDegree(hub));
+        for (int v = 2; v <= 1001; v += 2) {
+            g.remove(hub, v);
+        }
+        assertEquals(500, g.outDegree(hub));
+        assertFalse(g.contains(hub, 2));
+        assertTrue(g.contains(hub, 3));
+        assertEquals(3, g.successor(hub, 0));
+        assertEquals(1001, g.successor(hub, 499));
+        g.add(hub, 2);
+        assertEquals(2, g.successor(hub, 500));
+    }
+
+    @Test
+    public void testReuseVertices() {
+        UndirectedGraph g = new UndirectedGraph();
+        for (int i = 0; i < 5; i += 1) {
+            g.add();
+        }
+        g.remove(4);
+        g.remove(2);
+        g.remove(4);
+        assertEquals(2, g.add());
+        assertEquals(4, g.add());
+        assertEquals(6, g.add());
+        assertEquals(6, g.vertexSize());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        for (int i = 0; i < 6; i += 1) {
+            g.add();
+        }
+        g.add(1, 2);
+        g.add(1, 3);
+        g.add(1, 4);
+        g.add(4, 1);
+        g.add(5, 5);
+        g.add(6, 4);
+        g.removeAll(new int[] { 2, 5, 6, 7 });
+        assertEquals(3, g.vertexSize());
+        assertEquals(3, g.edgeSize());
+        assertEquals(3, g.successor(1, 0));
+        assertEquals(1, g.inDegree(4));
+        assertEquals(2, g.add());
+    }
+
+    @Test
+    public void testEdgeIds() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        for (int i = 0; i < 100000; i += 1) {
+            g.add();
+        }
+        int e1 = g.add(99999, 100000);
+        int e2 = g.add(100000, 99999);
+        assertEquals(e1, g.add(99999, 100000));
+        assertTrue(e1 > 0 && e2 > 0 && e1 != e2);
+        assertTrue(e1 <= 2 && e2 <= 2);
+        g.remove(99999, 100000);
+        assertEquals(e1, g.add(1, 2));
+        UndirectedGraph u = new UndirectedGraph();
+        u.add();
+        u.add();
+        assertEquals(u.add(1, 2), u.edgeId(2, 1));
+    }
+
+    @Test
+    public void testRecycledLabels() {
+        LabeledGraph<String, String> g =
+            new LabeledGraph<>(new DirectedGraph(Storage.ARRAY));
+        int a = g.add("a"), b = g.add("b"), c = g.add("c");
+        g.add(a, b, "ab");
+        g.add(c, a, "ca");
+        g.remove(a);
+        a = g.add("a2");
+        g.add(b, c);
+        g.add(a, c);
+        assertEquals(null, g.getLabel(b, c));
+        assertEquals(null, g.getLabel(a, c));
+        assertEquals("a2", g.getLabel(a));
+    }
+
+    @Test
+    public void testUndirectedEdges() {
+        UndirectedGraph g = new UndirectedGraph(Storage.ARRAY);
+        for (int i = 0; i < 4; i += 1) {
+            g.add();
+        }
+        g.add(3, 1);
+        g.add(2, 2);
+        g.add(4, 3);
+        g.add(1, 4);
+        int n = 0;
+        for (int[] e : g.edges()) {
+            assertTrue(e[0] <= e[1]);
+            assertTrue(g.contains(e[0], e[1]));
+            n += 1;
+        }
+        assertEquals(4, n);
+        assertEquals(4, g.edgeSize());
+        assertEquals(1, g.inDegree(2));
+        assertEquals(2, g.predecessor(2, 0));
+        g.remove(3);
+        g.remove(2, 2);
+        assertEquals(0, g.inDegree(2));
+        assertEquals(4, g.predecessor(1, 0));
+        assertEquals(1, g.add(2, 1));
+        for (int v : g.vertices()) {
+            IntIteration in = g.predecessorsInt(v);
+            for (int w : g.successors(v)) {
+                assertEquals(w, in.nextInt());
+            }
+            assertFalse(in.hasNext());
+        }
+    }
+
+    @Test
+    public void testIntIterations() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        for (int i = 0; i < 300; i += 1) {
+            g.add();
+        }
+        g.remove(150);
+        g.add(1, 200);
+        g.add(1, 2);
+        g.add(300, 2);
+        for (Graph h : new Graph[] { g, new CSRGraph(g),
+                                     new GraphFilter(g) }) {
+            IntIteration vs = h.verticesInt();
+            int n = 0;
+            while (vs.hasNext()) {
+                assertTrue(vs.nextInt() != 150);
+                n += 1;
+            }
+            assertEquals(299, n);
+            IntIteration succs = h.successorsInt(1);
+            assertEquals(200, succs.nextInt());
+            assertEquals(2, succs.nextInt());
+            assertFalse(succs.hasNext());
+            IntIteration preds = h.predecessorsInt(2);
+            assertEquals(1, preds.nextInt());
+            assertEquals(300, preds.nextInt());
+            assertFalse(h.successorsInt(150).hasNext());
+        }
+    }
+
+    @Test
+    public void testCounts() {
+        UndirectedGraph g = new UndirectedGraph(Storage.ARRAY);
+        for (int i = 0; i < 5; i += 1) {
+            g.add();
+        }
+        g.add(1, 1);
+        g.add(1, 2);
+        g.add(2, 1);
+        g.add(5, 3);
+        assertEquals(3, g.edgeSize());
+        g.remove(1);
+        assertEquals(1, g.edgeSize());
+        assertEquals(4, g.vertexSize());
+        g.remove(5);
+        assertEquals(4, g.maxVertex());
+        assertEquals(0, g.edgeSize());
+        g.removeAll(new int[] { 2, 3, 4 });
+        assertEquals(0, g.maxVertex());
+        assertEquals(0, g.vertexSize());
+    }
+
+    @Test
+    public void testBulkAdd() {
+        UndirectedGraph g = new UndirectedGraph(Storage.ARRAY);
+        assertEquals(0, g.addVertices(0));
+        assertEquals(1, g.addVertices(4));
+        g.add(1, 2);
+        int[] ids = g.addEdges(new int[] { 3, 2, 1, 4, 3 },
+                               new int[] { 1, 1, 4, 4, 1 });
+        assertEquals(4, g.vertexSize());
+        assertEquals(4, g.edgeSize());
+        assertEquals(g.edgeId(1, 2), ids[1]);
+        assertEquals(ids[0], ids[4]);
+        assertEquals(g.edgeId(4, 1), ids[2]);
+        assertEquals(2, g.successor(1, 0));
+        assertEquals(3, g.successor(1, 1));
+        assertEquals(4, g.successor(1, 2));
+        assertEquals(5, g.addVertices(2));
+        assertEquals(6, g.maxVertex());
+        DirectedGraph h = new DirectedGraph(Storage.ARRAY);
+        h.addVertices(100);
+        for (int w = 2; w <= 100; w += 3) {
+            h.addEdges(new int[] { 1, 1, 1 }, new int[] { w, w - 1, 100 });
+            h.remove(1, w - 1);
+        }
+        assertEquals(34, h.outDegree(1));
+        assertEquals(100, h.successor(1, 1));
+        assertEquals(98, h.successor(1, 33));
+        assertEquals(h.outDegree(1), h.successors(1).stream().count());
+        g.remove(6);
+        assertEquals(7, g.addVertices(1));
+        assertEquals(6, g.add());
+        try {
+            g.addVertices(-1);
+            fail("negative vertex count accepted");
+        } catch (IllegalArgumentException excp) {
+            /* OK */
+        }
+    }
+
+    /** Returns the successor lists of G, as a string. */
+    private static String adjacency(Graph g) {
+        StringBuilder out = new StringBuilder();
+        for (int v : g.vertices()) {
+            out.append(v).append(":");
+            for (int w : g.successors(v)) {
+                out.append(" ").append(w);
+            }
+            out.append(";");
+        }
+        return out.toString();
+    }
+
+    @Test
+    public void testSnapshot() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        g.addVertices(100);
+        for (int v = 1; v < 100; v += 1) {
+            g.add(v, v + 1);
+            g.add(v, 1);
+        }
+        g.remove(5, 1);
+        String before = adjacency(g);
+        GraphSnapshot s = g.snapshot();
+        assertEquals(g.version(), s.version());
+        g.remove(3);
+        g.add(100, 7);
+        g.remove(10, 1);
+        assertEquals(before, adjacency(s));
+        assertEquals(1, s.successor(6, 1));
+        assertTrue(s.contains(3, 4));
+        assertFalse(g.contains(3));
+        assertEquals(3, g.add());
+        assertFalse(s.contains(3, 3));
+        assertTrue(g.contains(100, 7));
+        assertFalse(s.contains(100, 7));
+        assertEquals(197, s.edgeSize());
+        assertEquals(98, s.inDegree(1));
+        assertEquals(g.edgeId(1, 2), s.edgeId(1, 2));
+        assertTrue(s.version() < g.version());
+        GraphSnapshot s2 = g.snapshot();
+        g.remove(100);
+        assertEquals(7, s2.successor(100, 0));
+        assertEquals(before, adjacency(s));
+        try {
+            s.add();
+            fail("snapshot is modifiable");
+        } catch (UnsupportedOperationException e) {
+            /* Expected. */
+        }
+    }
+
+    @Test
+    public void testOffHeap() {
+        UndirectedGraph g = new UndirectedGraph();
+        g.addVertices(6);
+        g.add(1, 2);
+        g.add(2, 3);
+        g.add(5, 2);
+        g.add(4, 4);
+        g.remove(6);
+        OffHeapGraph h = new OffHeapGraph(g);
+        assertEquals(adjacency(g), adjacency(h));
+        assertEquals(4, h.edgeSize());
+        assertEquals(3, h.inDegree(2));
+        assertEquals(h.edgeId(2, 5), h.edgeId(5, 2));
+        assertFalse(h.contains(6));
+        final ArrayList<Integer> order = new ArrayList<>();
+        new BreadthFirstTraversal(h) {
+            @Override
+            protected boolean visit(int v) {
+                order.add(v);
+                return true;
+            }
+        }.traverse(3);
+        assertEquals(Arrays.asList(3, 2, 1, 5), order);
+        IntIteration succ = h.successorsInt(2);
+        h.close();
+        assertTrue(h.isClosed());
+        try {
+            succ.hasNext();
+            fail("closed graph is readable");
+        } catch (IllegalStateException e) {
+            /* Expected. */
+        }
+    }
+
+    @Test
+    public void testGraphFile() throws IOException {
+        DirectedGraph g = new DirectedGraph();
+        g.addVertices(40);
+        for (int v = 1; v < 40; v += 3) {
+            g.add(v, 41 - v);
+            g.add(v, 1);
+        }
+        g.remove(37);
+        File file = File.createTempFile("graph", ".bin");
+        try {
+            GraphFile.write(g, file);
+            OffHeapGraph h = GraphFile.map(file);
+            CSRGraph c = new CSRGraph(g);
+            assertEquals(adjacency(g), adjacency(h));
+            assertEquals(g.edgeSize(), h.edgeSize());
+            assertEquals(g.vertexSize(), h.vertexSize());
+            assertEquals(40, h.maxVertex());
+            for (int v : c.vertices()) {
+                assertEquals(c.inDegree(v), h.inDegree(v));
+                assertEquals(c.predecessor(v, 0), h.predecessor(v, 0));
+            }
+            int pos;
+            pos = 0;
+            for (int v = 1; v < 10; v += 1) {
+                pos += h.outDegree(v);
+            }
+            assertEquals(pos + 1, h.edgeId(10, 31));
+            h.close();
+            GraphFile.write(new UndirectedGraph(), file);
+            h = GraphFile.map(file);
+            assertEquals(0, h.vertexSize());
+            h.close();
+            new FileOutputStream(file).close();
+            try {
+                GraphFile.map(file);
+                fail("empty file accepted");
+            } catch (IOException e) {
+                /* Expected. */
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testCompressed() {
+        DirectedGraph g = new DirectedGraph();
+        g.addVertices(300);
+        for (int v = 1; v <= 300; v += 1) {
+            g.add(v, 1 + (v * 7) % 300);
+            g.add(v, 1 + (v + 1) % 300);
+            g.add(v, v);
+        }
+        g.add(299, 2);
+        g.remove(150);
+        CompressedGraph c = new CompressedGraph(g);
+        assertEquals(g.vertexSize(), c.vertexSize());
+        assertEquals(g.edgeSize(), c.edgeSize());
+        assertEquals(300, c.maxVertex());
+        assertFalse(c.contains(150));
+        assertEquals(4, c.outDegree(299));
+        assertEquals(1, c.successor(299, 0));
+        assertEquals(2, c.successor(299, 1));
+        assertEquals(294, c.successor(299, 2));
+        assertEquals(299, c.successor(299, 3));
+        assertEquals(0, c.successor(299, 4));
+        int n;
+        n = 0;
+        for (int[] e : c.edges()) {
+            assertTrue(g.contains(e[0], e[1]));
+            assertTrue(c.contains(e[0], e[1]));
+            n += 1;
+        }
+        assertEquals(g.edgeSize(), n);
+        for (int v : g.vertices()) {
+            assertEquals(g.inDegree(v), c.inDegree(v));
+            int prev;
+            prev = 0;
+            for (int u : c.predecessors(v)) {
+                assertTrue(g.contains(u, v));
+                assertTrue(u > prev);
+                prev = u;
+            }
+        }
+        assertFalse(c.contains(299, 3));
+        assertTrue(c.edgeId(299, 294) > c.edgeId(299, 2));
+
+        UndirectedGraph h = new UndirectedGraph();
+        h.addVertices(5);
+        h.add(5, 1);
+        h.add(3, 3);
+        h.add(2, 5);
+        c = new CompressedGraph(h);
+        assertEquals(c.edgeId(1, 5), c.edgeId(5, 1));
+        assertEquals(1, c.successor(5, 0));
+        assertEquals(2, c.predecessor(5, 1));
+        assertTrue(c.contains(3, 3));
+        assertEquals(3, c.edgeSize());
+    }
+
+    @Test
+    public void testReordering() {
+        LabeledGraph<String, Integer> g =
+            new LabeledGraph<>(new UndirectedGraph());
+        for (int i = 0; i < 8; i += 1) {
+            g.add("x" + i);
+        }
+        int[] scrambled = { 5, 2, 8, 1, 7, 3, 6, 4 };
+        for (int i = 0; i + 1 < 8; i += 1) {
+            g.add(scrambled[i], scrambled[i + 1], i);
+        }
+        g.remove(g.add("gone"));
+        Reordering r = Reordering.reverseCuthillMcKee(g);
+        assertEquals(8, r.size());
+        LabeledGraph<String, Integer> h = r.apply(g);
+        assertEquals(8, h.maxVertex());
+        assertEquals(7, h.edgeSize());
+        for (int v = 1; v <= 8; v += 1) {
+            assertEquals(v, r.newVertex(r.oldVertex(v)));
+            assertEquals(g.getLabel(r.oldVertex(v)), h.getLabel(v));
+        }
+        for (int[] e : h.edges()) {
+            assertEquals(1, Math.abs(e[0] - e[1]));
+            assertEquals(g.getLabel(r.oldVertex(e[0]), r.oldVertex(e[1])),
+                         h.getLabel(e[0], e[1]));
+        }
+        assertEquals(0, r.newVertex(9));
+
+        DirectedGraph d = new DirectedGraph();
+        d.addVertices(4);
+        d.add(4, 1);
+        d.add(4, 2);
+        d.add(3, 4);
+        r = Reordering.byDegree(d);
+        assertEquals(1, r.newVertex(4));
+        Graph e = r.apply(d);
+        assertTrue(e.contains(1, r.newVertex(2)));
+        assertTrue(e.contains(r.newVertex(3), 1));
+        assertEquals(r.newVertex(1), e.successor(1, 0));
+        assertEquals(4, Reordering.breadthFirst(d).oldVertex(2));
+    }
+
+    /** Returns the vertices delivered by IT, as a list. */
+    private static ArrayList<Integer> toList(IntIteration it) {
+        ArrayList<Integer> result = new ArrayList<>();
+        while (it.hasNext()) {
+            result.add(it.nextInt());
+        }
+        return result;
+    }
+
+    @Test
+    public void testMatrixGraph() {
+        MatrixGraph g = new MatrixGraph(true);
+        for (int i = 0; i < 100; i += 1) {
+            g.add();
+        }
+        g.add(5, 90);
+        g.add(5, 3);
+        g.add(5, 70);
+        g.add(7, 70);
+        g.add(7, 3);
+        assertEquals(2, g.add(5, 3));
+        assertEquals(5, g.edgeSize());
+        assertTrue(g.contains(5, 70));
+        assertFalse(g.contains(70, 5));
+        assertEquals(3, g.successor(5, 1));
+        assertEquals(7, g.predecessor(3, 1));
+        assertEquals(Arrays.asList(3, 70, 90),
+                     toList(g.successorsAscending(5)));
+        assertEquals(2, g.commonSuccessors(5, 7));
+        g.remove(70);
+        assertFalse(g.contains(5, 70));
+        assertEquals(1, g.commonSuccessors(5, 7));
+        assertEquals(70, g.add());
+        assertEquals(0, g.inDegree(70));
+        assertFalse(g.contains(5, 70));
+        g.remove(5, 3);
+        assertEquals(Arrays.asList(90), toList(g.successorsAscending(5)));
+
+        MatrixGraph u = new MatrixGraph(false);
+        u.add();
+        u.add();
+        u.add(2, 1);
+        assertTrue(u.contains(1, 2));
+        u.remove(1, 2);
+        assertFalse(u.contains(2, 1));
+
+        assertTrue(MatrixGraph.create(false, 100, 1000)
+                   instanceof MatrixGraph);
+        assertFalse(MatrixGraph.create(true, 100000, 1000000)
+                    instanceof MatrixGraph);
+    }
+
+    @Test
+    public void testObservable() {
+        ObservableGraph g = new ObservableGraph(new DirectedGraph());
+        final ArrayList<String> log = new ArrayList<>();
+        final long[] seen = new long[1];
+        ObservableGraph.Listener l = new ObservableGraph.Listener() {
+            @Override
+            public void changed(ObservableGraph G,
+                                ObservableGraph.Changes changes) {
+                StringBuilder out = new StringBuilder();
+                for (int k = 0; k < changes.size(); k += 1) {
+                    assertEquals(seen[0] + 1, changes.modCount(k));
+                    seen[0] = changes.modCount(k);
+                    out.append(changes.kind(k).ordinal())
+                        .append(changes.source(k)).append(changes.target(k))
+                        .append(changes.edgeId(k)).append(" ");
+                }
+                assertEquals(seen[0], G.modCount());
+                log.add(out.toString());
+            }
+        };
+        g.addListener(l);
+        g.add();
+        g.add();
+        g.add(1, 2);
+        g.add(1, 2);
+        assertEquals(3, g.modCount());
+        assertEquals(Arrays.asList("0100 ", "0200 ", "2121 "), log);
+        log.clear();
+        g.beginBatch();
+        g.add(2, 1);
+        g.add(2, 2);
+        assertTrue(log.isEmpty());
+        g.endBatch();
+        assertEquals(Arrays.asList("2212 2223 "), log);
+        log.clear();
+        g.remove(2);
+        assertEquals(Arrays.asList("3212 3223 3121 1200 "), log);
+        assertEquals(9, g.modCount());
+        LabeledGraph<String, String> h = new LabeledGraph<>(g);
+        h.add(1, 1, "x");
+        g.remove(3, 4);
+        assertEquals("2111 ", log.get(1));
+        g.removeListener(l);
+        g.add();
+        assertEquals(2, log.size());
+        assertEquals(11, g.modCount());
+        try {
+            g.endBatch();
+            fail("unbalanced endBatch");
+        } catch (IllegalStateException excp) {
+            /* Expected. */
+        }
+    }
+
+    @Test
+    public void testSubgraphView() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        g.addVertices(6);
+        g.add(1, 2);
+        g.add(1, 3);
+        g.add(1, 4);
+        g.add(3, 1);
+        g.add(4, 6);
+        g.add(6, 6);
+        SubgraphView s =
+            new SubgraphView(g, v -> v != 3, (u, v) -> u != 6 || v != 6);
+        assertEquals(5, s.vertexSize());
+        assertEquals(6, s.maxVertex());
+        assertEquals(3, s.edgeSize());
+        assertFalse(s.contains(3));
+        assertFalse(s.contains(6, 6));
+        assertEquals(2, s.outDegree(1));
+        assertEquals(4, s.successor(1, 1));
+        assertEquals(0, s.successor(1, 2));
+        assertEquals(1, s.inDegree(6));
+        assertEquals(g.edgeId(4, 6), s.edgeId(4, 6));
+        assertEquals(0, s.edgeId(6, 6));
+        assertEquals("1: 2 4;2:;4: 6;5:;6:;", adjacency(s));
+        assertEquals(adjacency(s), adjacency(s.snapshot()));
+        try {
+            s.add();
+            fail("view is modifiable");
+        } catch (UnsupportedOperationException excp) {
+            /* Expected. */
+        }
+
+        s.materializeAfter(2);
+        for (int i = 0; i < 5; i += 1) {
+            assertEquals(2, s.outDegree(1));
+        }
+        assertTrue(s.snapshot() instanceof CSRGraph);
+        assertTrue(s.snapshot() == s.snapshot());
+        g.add(1, 5);
+        assertEquals(3, s.outDegree(1));
+        assertEquals(5, s.successor(1, 2));
+        for (int i = 0; i < 5; i += 1) {
+            assertEquals(4, s.edgeSize());
+        }
+
+        DirectedGraph d = new DirectedGraph();
+        d.addVertices(3);
+        LabeledGraph<String, String> lg = new LabeledGraph<>(d);
+        lg.add(1, 2, "a");
+        SubgraphView ls = new SubgraphView(lg, v -> true).materializeAfter(0);
+        assertEquals(1, ls.edgeSize());
+        lg.add(1, 3, "b");
+        assertEquals(2, ls.edgeSize());
+        assertEquals(2, ls.outDegree(1));
+        assertEquals(3, ls.successor(1, 1));
+        SubgraphView rs =
+            new SubgraphView(lg.reversed(), v -> true).materializeAfter(0);
+        assertEquals(2, rs.inDegree(1));
+        lg.remove(1, 2);
+        assertEquals(1, rs.inDegree(1));
+
+        ConcurrentDirectedGraph c = new ConcurrentDirectedGraph();
+        c.add();
+        c.add();
+        SubgraphView cs = new SubgraphView(c, v -> true).materializeAfter(0);
+        assertEquals(0, cs.edgeSize());
+        c.add(1, 2);
+        assertEquals(1, cs.edgeSize());
+        assertEquals(1, cs.outDegree(1));
+
+        UndirectedGraph u = new UndirectedGraph();
+        u.addVertices(3);
+        u.add(1, 2);
+        u.add(3, 2);
+        SubgraphView t = new SubgraphView(u, v -> v < 3);
+        assertEquals(1, t.edgeSize());
+        assertEquals(1, t.predecessor(2, 0));
+        assertEquals(1, t.inDegree(2));
+    }
+
+    @Test
+    public void testReversed() {
+        DirectedGraph g = new DirectedGraph(Storage.ARRAY);
+        g.addVertices(4);
+        int e12 = g.add(1, 2);
+        g.add(1, 3);
+        g.add(4, 1);
+        ReversedGraph r = new ReversedGraph(g);
+        assertEquals(3, r.edgeSize());
+        assertTrue(r.contains(2, 1));
+        assertFalse(r.contains(1, 2));
+        assertEquals(1, r.outDegree(1));
+        assertEquals(2, r.inDegree(1));
+        assertEquals(4, r.successor(1, 0));
+        assertEquals(3, r.predecessor(1, 1));
+        assertEquals(e12, r.edgeId(2, 1));
+        assertEquals("1: 4;2: 1;3: 1;4:;", adjacency(r));
+        for (int[] e : r.edges()) {
+            assertTrue(g.contains(e[1], e[0]));
+        }
+        Graph s = r.snapshot();
+        r.add(2, 3);
+        assertTrue(g.contains(3, 2));
+        assertFalse(s.contains(2, 3));
+        assertEquals("1: 4;2: 1;3: 1;4:;", adjacency(s));
+        r.remove(2, 1);
+        assertFalse(g.contains(1, 2));
+
+        LabeledGraph<String, String> h = new LabeledGraph<>(g);
+        h.setLabel(4, "d");
+        h.setLabel(4, 1, "x");
+        LabeledGraph<String, String> hr = h.reversed();
+        assertEquals("d", hr.getLabel(4));
+        assertEquals("x", hr.getLabel(1, 4));
+        hr.add(4, 2, "y");
+        assertEquals("y", h.getLabel(2, 4));
+        hr.setLabel(1, 4, "z");
+        assertEquals("z", h.getLabel(4, 1));
+        assertEquals(adjacency(h), adjacency(new ReversedGraph(hr)));
+    }
+
+    @Test
+    public void testWeighted() {
+        DirectedGraph d = new DirectedGraph(Storage.ARRAY);
+        d.addVertices(5);
+        WeightedGraph<String, String> g = new WeightedGraph<>(d);
+        g.add(1, 2, "a", 4.0);
+        g.add(1, 3, "b", 1.0);
+        g.add(3, 2, "c", 1.5);
+        g.add(2, 4, "d", 1.0);
+        g.add(3, 4);
+        assertEquals(4.0, g.weight(1, 2), 0.0);
+        assertEquals(0.0, g.weight(3, 4), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, g.weight(4, 3), 0.0);
+        g.setWeight(3, 4, 5.0);
+        assertEquals("c", g.getLabel(3, 2));
+        WeightedGraph<String, String>.WeightedIteration it =
+            g.weightedSuccessors(3);
+        assertEquals(2, it.nextInt());
+        assertEquals(1.5, it.weight(), 0.0);
+        assertEquals(4, it.nextInt());
+        assertEquals(5.0, it.weight(), 0.0);
+        assertFalse(it.hasNext());
+
+        WeightedShortestPaths paths = new WeightedShortestPaths(g, 1);
+        paths.setPaths();
+        assertEquals(3.5, paths.getWeight(4), 0.0);
+        assertEquals(Arrays.asList(1, 3, 2, 4), paths.pathTo(4));
+        assertEquals(Double.POSITIVE_INFINITY, paths.getWeight(5), 0.0);
+
+        g.remove(3, 4);
+        g.add(4, 5);
+        assertEquals(0.0, g.weight(4, 5), 0.0);
+        g.remove(3);
+        g.add(2, 5, null, 2.0);
+        assertEquals(2.0, g.weight(2, 5), 0.0);
+    }
+
+    @Test
+    public void testLabelIndex() {
+        DirectedGraph d = new DirectedGraph();
+        LabeledGraph<String, String> g = new LabeledGraph<>(d);
+        int a = g.add("a1"), b = g.add("b1");
+        g.indexVertices(lab -> lab.substring(0, 1));
+        assertEquals(a, g.findVertex("a"));
+        assertEquals(0, g.findVertex("c"));
+        int c = g.add("c1");
+        assertEquals(c, g.findVertex("c"));
+        g.setLabel(b, "d1");
+        assertEquals(0, g.findVertex("b"));
+        assertEquals(b, g.findVertex("d"));
+        g.remove(c);
+        assertEquals(0, g.findVertex("c"));
+
+        g.add(a, b, "ab");
+        g.indexEdges(lab -> lab);
+        g.add(b, a, "ba");
+        assertEquals(b, g.findEdge("ba")[0]);
+        assertEquals(a, g.findEdge("ab")[0]);
+        LabeledGraph<String, String> r = g.reversed();
+        assertEquals(b, r.findEdge("ab")[0]);
+        r.setLabel(b, a, "xy");
+        assertEquals(null, g.findEdge("ab"));
+        assertEquals(a, g.findEdge("xy")[0]);
+        r.setLabel(a, "e1");
+        assertEquals(a, g.findVertex("e"));
+        g.remove(a);
+        assertEquals(null, g.findEdge("ba"));
+        assertEquals(null, r.findEdge("xy"));
+        assertEquals(0, r.findVertex("e"));
+    }
+
+    @Test
+    public void testEdgeColumns() {
+        DirectedGraph d = new DirectedGraph();
+        d.addVertices(3);
+        LabeledGraph<String, String> g = new LabeledGraph<>(d);
+        EdgeColumn.Doubles lengths = g.doubleColumn();
+        EdgeColumn.Ints counts = g.intColumn();
+        EdgeColumn.Enums<Storage> kinds = g.enumColumn(Storage.class);
+        EdgeColumn.Strings names = g.stringColumn();
+        g.add(1, 2);
+        g.add(2, 3);
+        assertEquals(0.0, lengths.get(1, 2), 0.0);
+        assertEquals(0, counts.get(1, 2));
+        assertEquals(null, kinds.get(1, 2));
+        assertEquals(null, names.get(1, 2));
+        lengths.set(1, 2, 2.5);
+        counts.set(1, 2, 7);
+        kinds.set(1, 2, Storage.LINKED);
+        names.set(1, 2, "Main");
+        names.set(2, 3, new String("Main"));
+        assertEquals(2.5, lengths.get(1, 2), 0.0);
+        assertEquals(7, counts.get(1, 2));
+        assertEquals(Storage.LINKED, kinds.get(1, 2));
+        assertEquals(names.stringId(1, 2), names.stringId(2, 3));
+        assertEquals(1, names.distinct());
+        kinds.set(1, 2, null);
+        assertEquals(null, kinds.get(1, 2));
+
+        LabeledGraph<String, String> r = g.reversed();
+        EdgeColumn.Ints rcounts = r.intColumn();
+        rcounts.set(2, 1, 4);
+        assertEquals(4, rcounts.get(2, 1));
+        g.remove(1, 2);
+        g.add(3, 1);
+        assertEquals(0.0, lengths.get(3, 1), 0.0);
+        assertEquals(0, counts.get(3, 1));
+        assertEquals(null, names.get(3, 1));
+        assertEquals(0, rcounts.get(1, 3));
+        try {
+            lengths.get(1, 2);
+            fail("column read for missing edge");
+        } catch (IllegalArgumentException excp) {
+            /* OK */
+        }
+    }
+
+    @Test
+    public void testStreams() {
+        for (Graph g : new Graph[] { new DirectedGraph(),
+                                     new UndirectedGraph() }) {
+            for (int v = 1; v <= 5000; v += 1) {
+                g.add();
+            }
+            for (int v = 1; v <= 5000; v += 1) {
+                g.add(v, v % 5000 + 1);
+                g.add(v, (7 * v) % 5000 + 1);
+            }
+            for (int v = 3; v <= 5000; v += 17) {
+                g.remove(v);
+            }
+            ArrayList<Integer> verts = new ArrayList<>();
+            for (int v : g.vertices()) {
+                verts.add(v);
+            }
+            ArrayList<String> edges = new ArrayList<>();
+            for (int[] e : g.edges()) {
+                edges.add(Arrays.toString(e));
+            }
+            assertEquals(verts, Arrays.asList(g.vertexStream()
+                                              .toArray(Integer[]::new)));
+            assertEquals(verts, Arrays.asList(g.vertexStream().parallel()
+                                              .toArray(Integer[]::new)));
+            assertEquals(g.vertexSize(), g.vertexIntStream().count());
+            assertEquals(verts.stream().mapToInt(v -> v).sum(),
+                         g.vertexIntStream().parallel().sum());
+            assertEquals(edges, Arrays.asList(g.edgeStream()
+                                              .map(Arrays::toString)
+                                              .toArray(String[]::new)));
+            assertEquals(edges, Arrays.asList(g.edgeStream().parallel()
+                                              .map(Arrays::toString)
+                                              .toArray(String[]::new)));
+            int degrees;
+            degrees = 0;
+            for (int v : verts) {
+                degrees += g.outDegree(v);
+            }
+            assertEquals(degrees,
+                         g.vertexIntStream().parallel()
+                         .map(g::outDegree).sum());
+            for (int after : new int[] { -1, 0, 5 }) {
+                SubgraphView sub = new SubgraphView(g, v -> v % 3 != 0);
+                sub.materializeAfter(after);
+                ArrayList<String> subEdges = new ArrayList<>();
+                for (int[] e : sub.edges()) {
+                    subEdges.add(Arrays.toString(e));
+                }
+                assertEquals(subEdges,
+                             Arrays.asList(sub.edgeStream().parallel()
+                                           .map(Arrays::toString)
+                                           .toArray(String[]::new)));
+                assertEquals(sub.vertexSize(),
+                             sub.vertexStream().parallel().count());
+            }
+            assertEquals(g.vertexSize(), g.vertices().stream().count());
+            assertEquals(g.outDegree(1), g.successorsInt(1).intStream()
+                         .count());
+        }
+        assertEquals(0, new DirectedGraph().edgeStream().count());
+    }
+
+    /** Assert that each edge of G has the same id in G.snapshot(). */
+    private static void assertSnapshotIds(Graph g) {
+        Graph s = g.snapshot();
+        assertEquals(g.edgeSize(), s.edgeSize());
+        for (int[] e : g.edges()) {
+            assertTrue(g.edgeId(e[0], e[1]) != 0);
+            assertEquals(g.edgeId(e[0], e[1]), s.edgeId(e[0], e[1]));
+            assertEquals(g.edgeId(e[1], e[0]), s.edgeId(e[1], e[0]));
+        }
+    }
+
+    @Test
+    public void testSnapshotIds() {
+        DirectedGraph d = new DirectedGraph();
+        UndirectedGraph u = new UndirectedGraph(Storage.ARRAY);
+        ConcurrentDirectedGraph c = new ConcurrentDirectedGraph();
+        for (Graph g : new Graph[] { d, u, c }) {
+            for (int v = 1; v <= 8; v += 1) {
+                g.add();
+            }
+            for (int v = 1; v <= 8; v += 1) {
+                g.add(v, 9 - v);
+                g.add(v, v % 8 + 1);
+                g.add(v, 1);
+            }
+            g.remove(2, 7);
+            g.remove(5, 6);
+            g.add(8, 3);
+        }
+        for (Graph g : new Graph[] { d, u, c }) {
+            assertSnapshotIds(g);
+            assertSnapshotIds(new CSRGraph(g));
+            assertSnapshotIds(new LabeledGraph<String, String>(g));
+            assertSnapshotIds(new ObservableGraph(g));
+            assertSnapshotIds(new SubgraphView(g, v -> v != 4));
+            assertSnapshotIds(new SubgraphView(g, v -> v != 4)
+                              .materializeAfter(0));
+        }
+        assertSnapshotIds(new ReversedGraph(d));
+        MatrixGraph m = new MatrixGraph(true);
+        for (int v = 1; v <= 4; v += 1) {
+            m.add();
+        }
+        m.add(1, 2);
+        m.add(3, 4);
+        m.add(2, 3);
+        m.remove(1, 2);
+        m.add(4, 1);
+        assertSnapshotIds(m);
+    }
+
 }
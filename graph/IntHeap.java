@@ -0,0 +1,62 @@
+package graph;
+
+import java.util.Arrays;
+
+/* See restrictions in Graph.java. */
+
+/** A binary min-heap of ints.  GraphObj uses one to hold the numbers of
+ *  removed vertices, so that add() can find the smallest free vertex
+ *  number in O(log N) time.
+ *  @author Josh Rubin
+ */
+class IntHeap {
+
+    /** Returns true iff I am empty. */
+    boolean isEmpty() {
+        return _size == 0;
+    }
+
+    /** Add X to me. */
+    void add(int x) {
+        if (_size == _heap.length) {
+            _heap = Arrays.copyOf(_heap, Math.max(INITIAL, 2 * _size));
+        }
+        int k = _size;
+        _size += 1;
+        while (k > 0 && _heap[(k - 1) / 2] > x) {
+            _heap[k] = _heap[(k - 1) / 2];
+            k = (k - 1) / 2;
+        }
+        _heap[k] = x;
+    }
+
+    /** Remove and return my smallest value.  Assumes I am not empty. */
+    int poll() {
+        int result = _heap[0];
+        _size -= 1;
+        int x = _heap[_size];
+        int k = 0;
+        while (2 * k + 1 < _size) {
+            int c = 2 * k + 1;
+            if (c + 1 < _size && _heap[c + 1] < _heap[c]) {
+                c += 1;
+            }
+            if (_heap[c] >= x) {
+                break;
+            }
+            _heap[k] = _heap[c];
+            k = c;
+        }
+        _heap[k] = x;
+        return result;
+    }
+
+    /** Capacity allocated on the first add. */
+    private static final int INITIAL = 8;
+
+    /** My values, in heap order, are _heap[0 .. _size-1]. */
+    private int[] _heap = new int[0];
+    /** The number of my values. */
+    private int _size;
+
+}
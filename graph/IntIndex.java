@@ -0,0 +1,114 @@
+package graph;
+
+import java.util.Arrays;
+
+/* See restrictions in Graph.java. */
+
+/** An open-addressing hash map from positive int keys to int values,
+ *  using linear probing.  Removal shifts later entries of a probe
+ *  sequence back, so no tombstones are needed.
+ *  @author Josh Rubin
+ */
+class IntIndex {
+
+    /** An empty index with room for about N keys. */
+    IntIndex(int n) {
+        int cap = MIN_CAPACITY;
+        while (cap < 2 * n) {
+            cap *= 2;
+        }
+        _keys = new int[cap];
+        _vals = new int[cap];
+    }
+
+    /** Returns the number of keys in me. */
+    int size() {
+        return _size;
+    }
+
+    /** Returns the value for KEY, or -1 if KEY is absent. */
+    int get(int key) {
+        int mask = _keys.length - 1;
+        for (int i = hash(key) & mask; _keys[i] != 0; i = (i + 1) & mask) {
+            if (_keys[i] == key) {
+                return _vals[i];
+            }
+        }
+        return -1;
+    }
+
+    /** Set the value for KEY (> 0) to VAL. */
+    void put(int key, int val) {
+        if (2 * (_size + 1) > _keys.length) {
+            resize(2 * _keys.length);
+        }
+        int mask = _keys.length - 1;
+        int i;
+        for (i = hash(key) & mask; _keys[i] != 0; i = (i + 1) & mask) {
+            if (_keys[i] == key) {
+                _vals[i] = val;
+                return;
+            }
+        }
+        _keys[i] = key;
+        _vals[i] = val;
+        _size += 1;
+    }
+
+    /** Remove KEY, if present. */
+    void remove(int key) {
+        int mask = _keys.length - 1;
+        int i;
+        for (i = hash(key) & mask; _keys[i] != key; i = (i + 1) & mask) {
+            if (_keys[i] == 0) {
+                return;
+            }
+        }
+        _size -= 1;
+        for (int j = (i + 1) & mask; _keys[j] != 0; j = (j + 1) & mask) {
+            int home = hash(_keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                _keys[i] = _keys[j];
+                _vals[i] = _vals[j];
+                i = j;
+            }
+        }
+        _keys[i] = 0;
+    }
+
+    /** Remove all keys. */
+    void clear() {
+        Arrays.fill(_keys, 0);
+        _size = 0;
+    }
+
+    /** Rehash into tables of size CAP. */
+    private void resize(int cap) {
+        int[] keys = _keys, vals = _vals;
+        _keys = new int[cap];
+        _vals = new int[cap];
+        _size = 0;
+        for (int i = 0; i < keys.length; i += 1) {
+            if (keys[i] != 0) {
+                put(keys[i], vals[i]);
+            }
+        }
+    }
+
+    /** A well-mixed hash of KEY. */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Smallest table size. */
+    private static final int MIN_CAPACITY = 16;
+
+    /** Keys, with 0 marking an empty slot.  Length is a power of 2. */
+    private int[] _keys;
+    /** _vals[i] is the value for _keys[i]. */
+    private int[] _vals;
+    /** Number of keys present. */
+    private int _size;
+
+}
@@ -0,0 +1,113 @@
+package graph;
+
+/* See restrictions in Graph.java. */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/** An Iteration over ints that can deliver its values without boxing
+ *  them, through nextInt().  The inherited next() simply boxes the
+ *  result of nextInt().  For example,
+ *      IntIteration succs = G.successorsInt(v);
+ *      while (succs.hasNext()) {
+ *          int w = succs.nextInt();
+ *          ...
+ *      }
+ *  @author Josh Rubin
+ */
+public abstract class IntIteration extends Iteration<Integer>
+    implements PrimitiveIterator.OfInt {
+
+    @Override
+    public abstract int nextInt();
+
+    @Override
+    public Integer next() {
+        return nextInt();
+    }
+
+    /** Returns a sequential IntStream of the values I have yet to
+     *  deliver, which consumes me without boxing them. */
+    public IntStream intStream() {
+        Spliterator.OfInt parts = Spliterators.spliteratorUnknownSize(this, 0);
+        return StreamSupport.intStream(parts, false);
+    }
+
+    /** An IntIteration that unboxes the values delivered by an
+     *  Iterator<Integer>. */
+    private static class Unboxing extends IntIteration {
+        /** ITER as an IntIteration. */
+        Unboxing(Iterator<Integer> iter) {
+            _iter = iter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _iter.hasNext();
+        }
+
+        @Override
+        public int nextInt() {
+            return _iter.next();
+        }
+
+        /** The iterator with which I was constructed. */
+        private final Iterator<Integer> _iter;
+    }
+
+    /** An IntIteration over the entries A[START] .. A[END - 1]. */
+    private static class Slice extends IntIteration {
+        /** An iteration over A[START .. END-1]. */
+        Slice(int[] a, int start, int end) {
+            _a = a;
+            _k = start;
+            _end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _k < _end;
+        }
+
+        @Override
+        public int nextInt() {
+            if (_k >= _end) {
+                throw new NoSuchElementException();
+            }
+            int v = _a[_k];
+            _k += 1;
+            return v;
+        }
+
+        /** The array being sliced. */
+        private final int[] _a;
+        /** The next position to deliver. */
+        private int _k;
+        /** The end of the slice. */
+        private final int _end;
+    }
+
+    /** Returns an IntIteration that delegates to IT. */
+    static IntIteration unboxing(Iterator<Integer> it) {
+        return new Unboxing(it);
+    }
+
+    /** Returns an IntIteration over A[START .. END-1]. */
+    static IntIteration slice(int[] a, int start, int end) {
+        return new Slice(a, start, end);
+    }
+
+    /** An empty IntIteration. */
+    static IntIteration empty() {
+        return new Slice(EMPTY, 0, 0);
+    }
+
+    /** An empty array. */
+    private static final int[] EMPTY = {};
+
+}
@@ -3,6 +3,10 @@ package graph;
 /* See restrictions in Graph.java. */
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /** An Iteration<TYPE> is an Iterator<TYPE> that may also be used in a foreach
  *  loop.  That is, it implements the Iterable<TYPE> interface by simply
@@ -20,6 +24,17 @@ public abstract class Iteration<Type>
         return this;
     }
 
+    /** Returns a sequential Stream of the values I have yet to deliver,
+     *  which consumes me.  Values such as the arrays of edges() that may
+     *  change on the next call of next() are delivered as they are, so
+     *  a pipeline that keeps them must copy them first.  Graph's
+     *  vertexStream() and edgeStream() split for parallel use; this
+     *  does not. */
+    public Stream<Type> stream() {
+        Spliterator<Type> parts = Spliterators.spliteratorUnknownSize(this, 0);
+        return StreamSupport.stream(parts, false);
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException("remove not supported");
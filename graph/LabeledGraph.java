@@ -3,6 +3,7 @@ package graph;
 /* See restrictions in Graph.java. */
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 /** A Graph whose vertices are labeled with type VL and whose edges are
  *  labeled with type EL.
@@ -10,12 +11,114 @@ import java.util.ArrayList;
  */
 public class LabeledGraph<VL, EL> extends GraphFilter {
 
+    /** Extracts the key by which a label of type L is indexed. */
+    public interface KeyExtractor<L, K> {
+        /** Returns the key of LABEL, which is not null. */
+        K key(L label);
+    }
+
     /** A labeling of the graph G.  Accessors and modifiers of the graph
      *  act upon G.  Attempts to modify the graph structure directly through
      *  G have undefined effects upon the labeled version created by this
      *  constructor. */
     public LabeledGraph(Graph G) {
+        this(G, new ArrayList<VL>(), new ArrayList<EL>(),
+             new Shared<VL, EL>(), false);
+    }
+
+    /** A labeling of the graph G that keeps its vertex and edge labels in
+     *  VLABEL and ELABEL, and its label indexes and edge columns in
+     *  SHARED, all of which may be shared with other views of G.
+     *  REVERSED indicates that G reverses the edges of the graph whose
+     *  edges are indexed. */
+    private LabeledGraph(Graph G, ArrayList<VL> vlabel,
+                         ArrayList<EL> elabel, Shared<VL, EL> shared,
+                         boolean reversed) {
         super(G);
+        _vlabel = vlabel;
+        _elabel = elabel;
+        _shared = shared;
+        _reversed = reversed;
+    }
+
+    /** Returns a view of me with the directions of my edges reversed,
+     *  as for ReversedGraph, sharing my labels, indexes, and columns:
+     *  the label on the edge (U, V) of the view is the label on my edge
+     *  (V, U), and setting labels through either changes both. */
+    public LabeledGraph<VL, EL> reversed() {
+        return new LabeledGraph<>(new ReversedGraph(this), _vlabel, _elabel,
+                                  _shared, !_reversed);
+    }
+
+    /** Index my vertices by the keys that KEY extracts from their
+     *  labels, replacing any previous vertex index, so that findVertex
+     *  finds them in constant time.  The index is kept up to date as
+     *  labels are set and vertices removed.  Vertices with null labels
+     *  are not indexed.  Keys should be unique; if they are not, the
+     *  index holds the vertex most recently given each key. */
+    public void indexVertices(KeyExtractor<? super VL, ?> key) {
+        _shared._vertexKey = key;
+        _shared._vertices = new HashMap<>();
+        for (int v : verticesInt()) {
+            indexVertex(v, getLabel(v));
+        }
+    }
+
+    /** Index my edges by the keys that KEY extracts from their labels,
+     *  as for indexVertices, so that findEdge finds them in constant
+     *  time. */
+    public void indexEdges(KeyExtractor<? super EL, ?> key) {
+        _shared._edgeKey = key;
+        _shared._edges = new HashMap<>();
+        for (int[] e : edges()) {
+            indexEdge(e[0], e[1], getLabel(e[0], e[1]));
+        }
+    }
+
+    /** Returns a new column of doubles describing my edges. */
+    public EdgeColumn.Doubles doubleColumn() {
+        return addColumn(new EdgeColumn.Doubles(this));
+    }
+
+    /** Returns a new column of ints describing my edges. */
+    public EdgeColumn.Ints intColumn() {
+        return addColumn(new EdgeColumn.Ints(this));
+    }
+
+    /** Returns a new column of values of the enumerated type TYPE
+     *  describing my edges. */
+    public <E extends Enum<E>> EdgeColumn.Enums<E> enumColumn(Class<E> type) {
+        return addColumn(new EdgeColumn.Enums<>(this, type));
+    }
+
+    /** Returns a new column of Strings describing my edges. */
+    public EdgeColumn.Strings stringColumn() {
+        return addColumn(new EdgeColumn.Strings(this));
+    }
+
+    /** Returns the vertex whose label has the key KEY in the index made
+     *  by indexVertices, or 0 if there is none. */
+    public int findVertex(Object key) {
+        if (_shared._vertices == null) {
+            throw new IllegalStateException("vertices are not indexed");
+        }
+        Integer v = _shared._vertices.get(key);
+        return v == null ? 0 : v;
+    }
+
+    /** Returns the ends (U, V) of the edge whose label has the key KEY in
+     *  the index made by indexEdges, as a two-element array, or null if
+     *  there is none. */
+    public int[] findEdge(Object key) {
+        if (_shared._edges == null) {
+            throw new IllegalStateException("edges are not indexed");
+        }
+        Long e = _shared._edges.get(key);
+        if (e == null) {
+            return null;
+        }
+        int u = (int) (e >>> 32), v = (int) (long) e;
+        return _reversed ? new int[] { v, u } : new int[] { u, v };
     }
 
     /** Returns the label on vertex V, which must be one of my
@@ -40,7 +143,8 @@ public class LabeledGraph<VL, EL> extends GraphFilter {
         checkMyVertex(v);
         if (lab != null || v < _vlabel.size()) {
             expand(_vlabel, v + 1);
-            _vlabel.set(v, lab);
+            unindexVertex(v, _vlabel.set(v, lab));
+            indexVertex(v, lab);
         }
     }
 
@@ -50,10 +154,7 @@ public class LabeledGraph<VL, EL> extends GraphFilter {
         if (e == 0) {
             throw new IllegalArgumentException("no such edge");
         }
-        if (lab != null || e < _elabel.size()) {
-            expand(_elabel, e + 1);
-            _elabel.set(e, lab);
-        }
+        putLabel(u, v, e, lab);
     }
 
     /** Returns a new vertex labeled LAB, and adds it to me with no
@@ -70,18 +171,23 @@ public class LabeledGraph<VL, EL> extends GraphFilter {
      *  an edge (U, V), sets its label to EL. */
     public int add(int u, int v, EL lab) {
         int e = add(u, v);
-        if (lab != null || e < _elabel.size()) {
-            expand(_elabel, e + 1);
-            _elabel.set(e, lab);
-        }
+        putLabel(u, v, e, lab);
         return e;
     }
 
     @Override
     public void remove(int v) {
+        if (contains(v)) {
+            for (int w : successors(v)) {
+                clearLabel(v, w, edgeId(v, w));
+            }
+            for (int u : predecessors(v)) {
+                clearLabel(u, v, edgeId(u, v));
+            }
+        }
         super.remove(v);
         if (v < _vlabel.size()) {
-            _vlabel.set(v, null);
+            unindexVertex(v, _vlabel.set(v, null));
         }
     }
 
@@ -90,12 +196,96 @@ public class LabeledGraph<VL, EL> extends GraphFilter {
         int e = edgeId(u, v);
         if (e != 0) {
             super.remove(u, v);
-            if (e < _elabel.size()) {
-                _elabel.set(e, null);
-            }
+            clearLabel(u, v, e);
+        }
+    }
+
+    /** Set the label of the edge (U, V), whose id is E, to LAB. */
+    private void putLabel(int u, int v, int e, EL lab) {
+        if (lab != null || e < _elabel.size()) {
+            expand(_elabel, e + 1);
+            unindexEdge(u, v, _elabel.set(e, lab));
+            indexEdge(u, v, lab);
+        }
+    }
+
+    /** Remove any label on the edge (U, V), whose id is E, so that the
+     *  id can be reused by the underlying graph for a new, unlabeled
+     *  edge. */
+    private void clearLabel(int u, int v, int e) {
+        if (e < _elabel.size()) {
+            unindexEdge(u, v, _elabel.set(e, null));
+        }
+        for (EdgeColumn column : _shared._columns) {
+            column.clear(e);
+        }
+    }
+
+    /** Add COLUMN to the columns cleared when edges are removed, and
+     *  return it. */
+    private <C extends EdgeColumn> C addColumn(C column) {
+        _shared._columns.add(column);
+        return column;
+    }
+
+    /** Record in the vertex index, if any, that V is labeled LAB. */
+    private void indexVertex(int v, VL lab) {
+        if (_shared._vertices != null && lab != null) {
+            _shared._vertices.put(_shared._vertexKey.key(lab), v);
+        }
+    }
+
+    /** Remove from the vertex index, if any, the record that V is
+     *  labeled LAB. */
+    private void unindexVertex(int v, VL lab) {
+        if (_shared._vertices != null && lab != null) {
+            _shared._vertices.remove(_shared._vertexKey.key(lab), v);
+        }
+    }
+
+    /** Record in the edge index, if any, that the edge (U, V) is labeled
+     *  LAB. */
+    private void indexEdge(int u, int v, EL lab) {
+        if (_shared._edges != null && lab != null) {
+            _shared._edges.put(_shared._edgeKey.key(lab), ends(u, v));
         }
     }
 
+    /** Remove from the edge index, if any, the record that the edge (U,
+     *  V) is labeled LAB. */
+    private void unindexEdge(int u, int v, EL lab) {
+        if (_shared._edges != null && lab != null) {
+            _shared._edges.remove(_shared._edgeKey.key(lab), ends(u, v));
+        }
+    }
+
+    /** Returns the ends of my edge (U, V), packed into a long as
+     *  recorded in the edge index. */
+    private long ends(int u, int v) {
+        if (_reversed) {
+            return (long) v << 32 | u;
+        } else {
+            return (long) u << 32 | v;
+        }
+    }
+
+    /** The label indexes and edge columns of a LabeledGraph, which are
+     *  shared with its reversed views. */
+    private static class Shared<VL, EL> {
+        /** Extracts the keys of vertex labels. */
+        private KeyExtractor<? super VL, ?> _vertexKey;
+        /** Maps vertex keys to vertices, or null if there is no vertex
+         *  index. */
+        private HashMap<Object, Integer> _vertices;
+        /** Extracts the keys of edge labels. */
+        private KeyExtractor<? super EL, ?> _edgeKey;
+        /** Maps edge keys to packed edge ends, or null if there is no
+         *  edge index. */
+        private HashMap<Object, Long> _edges;
+        /** My edge columns. */
+        private final ArrayList<EdgeColumn> _columns = new ArrayList<>();
+    }
+
     /** If necessary, add nulls to L to make its length N.  Has no effect if
      *  L's length is already at least N. */
     static void expand(ArrayList<?> L, int n) {
@@ -105,7 +295,12 @@ public class LabeledGraph<VL, EL> extends GraphFilter {
     }
 
     /** Mapping of vertex numbers to vertex labels. */
-    private final ArrayList<VL> _vlabel = new ArrayList<>();
+    private final ArrayList<VL> _vlabel;
     /** Mapping of unique edge ids to edge labels. */
-    private final ArrayList<EL> _elabel = new ArrayList<>();
+    private final ArrayList<EL> _elabel;
+    /** Indexes of my labels, and my edge columns. */
+    private final Shared<VL, EL> _shared;
+    /** True iff I am a reversed view of the graph whose edges are
+     *  indexed. */
+    private final boolean _reversed;
 }
@@ -0,0 +1,123 @@
+package graph;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.ListIterator;
+
+/* See restrictions in Graph.java. */
+
+/** An AdjList represented as a LinkedList of Longs, each of which packs
+ *  an entry (in its upper 32 bits) with the id of its edge (in its lower
+ *  32 bits), so that an entry and its id share one list node.
+ *  @author Josh Rubin
+ */
+class LinkedAdjList extends AdjList {
+
+    @Override
+    int size() {
+        return _list.size();
+    }
+
+    @Override
+    int get(int k) {
+        return vertex(_list.get(k));
+    }
+
+    @Override
+    int id(int v) {
+        for (long entry : _list) {
+            if (vertex(entry) == v) {
+                return id(entry);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    void add(int v, int id) {
+        _list.add(pack(v, id));
+    }
+
+    @Override
+    int remove(int v) {
+        for (ListIterator<Long> it = _list.listIterator(); it.hasNext(); ) {
+            long entry = it.next();
+            if (vertex(entry) == v) {
+                it.remove();
+                return id(entry);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    int removeAll(BitSet vertices) {
+        int n = _list.size();
+        _list.removeIf(entry -> vertices.get(vertex(entry)));
+        return n - _list.size();
+    }
+
+    @Override
+    IntIteration iteration() {
+        return new Unpacking(_list.iterator(), true);
+    }
+
+    @Override
+    IntIteration ids() {
+        return new Unpacking(_list.iterator(), false);
+    }
+
+    @Override
+    AdjList copy() {
+        LinkedAdjList result = new LinkedAdjList();
+        result._list.addAll(_list);
+        return result;
+    }
+
+    /** Returns the entry V with edge id ID, packed as one long. */
+    private static long pack(int v, int id) {
+        return (long) v << 32 | (id & 0xffffffffL);
+    }
+
+    /** Returns the vertex packed in ENTRY. */
+    private static int vertex(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    /** Returns the edge id packed in ENTRY. */
+    private static int id(long entry) {
+        return (int) entry;
+    }
+
+    /** An IntIteration over the vertices or the edge ids of packed
+     *  entries. */
+    private static class Unpacking extends IntIteration {
+        /** The vertices (if VERTICES) or ids (otherwise) of the entries
+         *  delivered by ITER. */
+        Unpacking(Iterator<Long> iter, boolean vertices) {
+            _iter = iter;
+            _vertices = vertices;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _iter.hasNext();
+        }
+
+        @Override
+        public int nextInt() {
+            long entry = _iter.next();
+            return _vertices ? vertex(entry) : id(entry);
+        }
+
+        /** The packed entries. */
+        private final Iterator<Long> _iter;
+        /** True iff I deliver vertices rather than ids. */
+        private final boolean _vertices;
+    }
+
+    /** My entries, each packed with its edge id. */
+    private final LinkedList<Long> _list = new LinkedList<>();
+
+}
@@ -0,0 +1,217 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** A Graph for small, dense graphs, which records its edges in a bit
+ *  matrix as well as in adjacency lists.  Bit W of _rows[V] is set iff
+ *  (V, W) is an edge, and, for directed graphs, bit U of _cols[V] is set
+ *  iff (U, V) is an edge, so that contains(u, v) is a single bit test,
+ *  and operations on whole sets of neighbors proceed 64 vertices at a
+ *  time.  The adjacency lists, kept by an underlying graph with ARRAY
+ *  storage, supply the order of successors and predecessors and the edge
+ *  ids.  The matrix occupies maxVertex()^2 / 8 bytes (twice that for a
+ *  directed graph); see create for when that is worthwhile.
+ *  @author Josh Rubin
+ */
+public class MatrixGraph extends GraphFilter {
+
+    /** An empty graph, directed iff DIRECTED. */
+    public MatrixGraph(boolean directed) {
+        super(directed ? new DirectedGraph(Storage.ARRAY)
+              : new UndirectedGraph(Storage.ARRAY));
+        _directed = directed;
+    }
+
+    /** Returns a new, empty graph, directed iff DIRECTED, suited to
+     *  holding about VERTICES vertices and EDGES edges: a MatrixGraph if
+     *  the graph is small and dense enough, and otherwise a graph with
+     *  ARRAY adjacency lists.  A matrix is chosen when there are at most
+     *  MAX_MATRIX vertices and at least one edge for every DENSITY
+     *  possible ones.  A MatrixGraph keeps its lists as well, so the
+     *  matrix is an extra cost: at the threshold it roughly doubles the
+     *  memory of a directed graph and adds half to that of an undirected
+     *  one, and its share falls as the graph grows denser.
+     *  In return, contains(u, v) is a bit test rather than a search of
+     *  the adjacency list of U, which on dense graphs is about three
+     *  times faster. */
+    public static Graph create(boolean directed, int vertices, long edges) {
+        if (vertices <= MAX_MATRIX
+            && edges * DENSITY >= (long) vertices * vertices) {
+            return new MatrixGraph(directed);
+        } else if (directed) {
+            return new DirectedGraph(Storage.ARRAY);
+        } else {
+            return new UndirectedGraph(Storage.ARRAY);
+        }
+    }
+
+    @Override
+    public boolean contains(int u, int v) {
+        return u > 0 && u < _rows.length && _rows[u] != null
+            && v > 0 && v < _rows.length && get(_rows[u], v);
+    }
+
+    @Override
+    public int add() {
+        int v = super.add();
+        if (v >= _rows.length) {
+            int cap = Math.max(WORD, 2 * _rows.length);
+            while (v >= cap) {
+                cap *= 2;
+            }
+            _rows = resize(_rows, cap);
+            _cols = _directed ? resize(_cols, cap) : _rows;
+        }
+        _rows[v] = new long[_rows.length / WORD];
+        if (_directed) {
+            _cols[v] = new long[_rows.length / WORD];
+        }
+        return v;
+    }
+
+    @Override
+    public int add(int u, int v) {
+        checkMyVertex(u);
+        checkMyVertex(v);
+        if (contains(u, v)) {
+            return edgeId(u, v);
+        }
+        int e = super.add(u, v);
+        set(_rows[u], v);
+        set(_cols[v], u);
+        return e;
+    }
+
+    @Override
+    public void remove(int v) {
+        if (!contains(v)) {
+            return;
+        }
+        for (int w : successorsInt(v)) {
+            clear(_cols[w], v);
+        }
+        for (int u : predecessorsInt(v)) {
+            clear(_rows[u], v);
+        }
+        super.remove(v);
+        _rows[v] = null;
+        _cols[v] = null;
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        if (contains(u, v)) {
+            super.remove(u, v);
+            clear(_rows[u], v);
+            clear(_cols[v], u);
+        }
+    }
+
+    /** Returns an Iteration over the successors of V in increasing
+     *  order, found by scanning its row of the matrix a word at a
+     *  time. */
+    public IntIteration successorsAscending(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        final long[] row = _rows[v];
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                while (_bits == 0 && _k + 1 < row.length) {
+                    _k += 1;
+                    _bits = row[_k];
+                }
+                return _bits != 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int w = _k * WORD + Long.numberOfTrailingZeros(_bits);
+                _bits &= _bits - 1;
+                return w;
+            }
+
+            /** Index in row of the word being scanned. */
+            private int _k = -1;
+            /** Bits of row[_k] not yet delivered. */
+            private long _bits;
+        };
+    }
+
+    /** Returns the number of vertices that are successors of both U and
+     *  V. */
+    public int commonSuccessors(int u, int v) {
+        if (!contains(u) || !contains(v)) {
+            return 0;
+        }
+        long[] a = _rows[u], b = _rows[v];
+        int n;
+        n = 0;
+        for (int k = 0; k < a.length; k += 1) {
+            n += Long.bitCount(a[k] & b[k]);
+        }
+        return n;
+    }
+
+    @Override
+    protected int edgeId(int u, int v) {
+        return contains(u, v) ? super.edgeId(u, v) : 0;
+    }
+
+    /** Returns a copy of ROWS with length CAP, in which each row is
+     *  extended to CAP bits. */
+    private static long[][] resize(long[][] rows, int cap) {
+        long[][] result = new long[cap][];
+        for (int v = 0; v < rows.length; v += 1) {
+            if (rows[v] != null) {
+                result[v] = Arrays.copyOf(rows[v], cap / WORD);
+            }
+        }
+        return result;
+    }
+
+    /** Returns bit K of BITS. */
+    private static boolean get(long[] bits, int k) {
+        return (bits[k / WORD] & 1L << k) != 0;
+    }
+
+    /** Set bit K of BITS. */
+    private static void set(long[] bits, int k) {
+        bits[k / WORD] |= 1L << k;
+    }
+
+    /** Clear bit K of BITS. */
+    private static void clear(long[] bits, int k) {
+        bits[k / WORD] &= ~(1L << k);
+    }
+
+    /** Number of bits in a word of the matrix. */
+    private static final int WORD = 64;
+    /** Largest number of vertices for which create chooses a matrix. */
+    static final int MAX_MATRIX = 1 << 14;
+    /** create chooses a matrix if there is at least one edge per DENSITY
+     *  possible edges.  The lists take two ints (vertex and id) per edge
+     *  in each direction, 16 bytes per edge, or N^2 / 4 bytes for N
+     *  vertices at this density.  A directed matrix is the same size and
+     *  an undirected one half of it.  With sparser graphs the matrix
+     *  would cost more than the lists, and contains is cheap on short
+     *  lists anyway. */
+    static final int DENSITY = 64;
+
+    /** True iff I am directed. */
+    private final boolean _directed;
+    /** The rows of the matrix, indexed by vertex, or null for numbers
+     *  that are not vertices. */
+    private long[][] _rows = new long[0][];
+    /** The columns of the matrix, indexed by vertex; the same as _rows
+     *  if I am undirected. */
+    private long[][] _cols = _rows;
+
+}
@@ -0,0 +1,289 @@
+package graph;
+
+import java.util.Arrays;
+
+/* See restrictions in Graph.java. */
+
+/** A Graph that reports each change to its structure to a set of
+ *  listeners, so that indexes derived from it (shortest paths, component
+ *  labels, and the like) can be updated incrementally rather than
+ *  recomputed.  All changes must be made through the ObservableGraph
+ *  (or a LabeledGraph over it), not directly to the underlying graph.
+ *
+ *  Every change increments modCount(), and each reported change carries
+ *  the modCount() it produced, so that an index that records the
+ *  modCount() it reflects can tell in constant time whether it is
+ *  stale.  Changes are delivered as soon as they are made, or, between
+ *  calls to beginBatch() and endBatch(), all together when the
+ *  outermost batch ends.
+ *  @author Josh Rubin
+ */
+public class ObservableGraph extends GraphFilter {
+
+    /** The kinds of change reported to listeners. */
+    public enum Kind {
+        /** A vertex was added. */
+        VERTEX_ADDED,
+        /** A vertex was removed, after the removal of its edges. */
+        VERTEX_REMOVED,
+        /** An edge was added. */
+        EDGE_ADDED,
+        /** An edge was removed. */
+        EDGE_REMOVED;
+    }
+
+    /** Receives the changes made to an ObservableGraph. */
+    public interface Listener {
+        /** Called after the changes CHANGES have been made to G.  CHANGES
+         *  is valid only for the duration of the call, and G may not be
+         *  modified during it. */
+        void changed(ObservableGraph G, Changes changes);
+    }
+
+    /** A sequence of changes, in the order they were made.  Change K
+     *  concerns the vertex source(K) (for vertex changes) or the edge
+     *  (source(K), target(K)) with id edgeId(K) (for edge changes); the
+     *  id of a removed edge is the one it had before removal, and may be
+     *  reused by later changes. */
+    public static class Changes {
+
+        /** Returns the number of changes. */
+        public int size() {
+            return _size;
+        }
+
+        /** Returns the kind of change K. */
+        public Kind kind(int k) {
+            check(k);
+            return _kinds[k];
+        }
+
+        /** Returns the vertex added or removed by change K, or the first
+         *  end of the edge it added or removed. */
+        public int source(int k) {
+            check(k);
+            return _source[k];
+        }
+
+        /** Returns the second end of the edge added or removed by change
+         *  K, or 0 for a vertex change. */
+        public int target(int k) {
+            check(k);
+            return _target[k];
+        }
+
+        /** Returns the id of the edge added or removed by change K, or 0
+         *  for a vertex change. */
+        public int edgeId(int k) {
+            check(k);
+            return _ids[k];
+        }
+
+        /** Returns the modCount() of the graph just after change K. */
+        public long modCount(int k) {
+            check(k);
+            return _first + k;
+        }
+
+        /** Check that K is the index of one of my changes. */
+        private void check(int k) {
+            if (k < 0 || k >= _size) {
+                throw new IndexOutOfBoundsException("no change " + k);
+            }
+        }
+
+        /** Append the change KIND to SOURCE and TARGET with id ID. */
+        void add(Kind kind, int source, int target, int id) {
+            if (_size == _ids.length) {
+                int n = 2 * _size;
+                _kinds = Arrays.copyOf(_kinds, n);
+                _source = Arrays.copyOf(_source, n);
+                _target = Arrays.copyOf(_target, n);
+                _ids = Arrays.copyOf(_ids, n);
+            }
+            _kinds[_size] = kind;
+            _source[_size] = source;
+            _target[_size] = target;
+            _ids[_size] = id;
+            _size += 1;
+        }
+
+        /** Remove all changes, and number the next change added FIRST. */
+        void clear(long first) {
+            _size = 0;
+            _first = first;
+        }
+
+        /** Number of changes. */
+        private int _size;
+        /** The modCount() after my first change. */
+        private long _first;
+        /** Kinds of my changes. */
+        private Kind[] _kinds = new Kind[INITIAL];
+        /** Vertices or first edge ends of my changes. */
+        private int[] _source = new int[INITIAL];
+        /** Second edge ends of my changes. */
+        private int[] _target = new int[INITIAL];
+        /** Edge ids of my changes. */
+        private int[] _ids = new int[INITIAL];
+    }
+
+    /** An observable graph that makes its changes to G, which should
+     *  not afterwards be changed directly. */
+    public ObservableGraph(Graph G) {
+        super(G);
+        _pending.clear(1);
+    }
+
+    /** Add L to the listeners to which changes are reported. */
+    public void addListener(Listener l) {
+        _listeners = Arrays.copyOf(_listeners, _listeners.length + 1);
+        _listeners[_listeners.length - 1] = l;
+    }
+
+    /** Remove L from the listeners to which changes are reported, if it
+     *  is one. */
+    public void removeListener(Listener l) {
+        for (int i = 0; i < _listeners.length; i += 1) {
+            if (_listeners[i] == l) {
+                Listener[] result = new Listener[_listeners.length - 1];
+                System.arraycopy(_listeners, 0, result, 0, i);
+                System.arraycopy(_listeners, i + 1, result, i,
+                                 result.length - i);
+                _listeners = result;
+                return;
+            }
+        }
+    }
+
+    /** Returns the number of changes made through me so far. */
+    public long modCount() {
+        return _modCount;
+    }
+
+    /** Returns modCount(). */
+    @Override
+    long stamp() {
+        return _modCount;
+    }
+
+    /** Start a batch of changes, which are reported together when it and
+     *  any batches started within it have ended. */
+    public void beginBatch() {
+        _batches += 1;
+    }
+
+    /** End the batch most recently started, reporting its changes if it
+     *  is the outermost. */
+    public void endBatch() {
+        if (_batches == 0) {
+            throw new IllegalStateException("no batch in progress");
+        }
+        _batches -= 1;
+        flush();
+    }
+
+    @Override
+    public int add() {
+        checkNotDelivering();
+        int v = super.add();
+        record(Kind.VERTEX_ADDED, v, 0, 0);
+        return v;
+    }
+
+    @Override
+    public int add(int u, int v) {
+        checkNotDelivering();
+        int n = edgeSize();
+        int e = super.add(u, v);
+        if (edgeSize() != n) {
+            record(Kind.EDGE_ADDED, u, v, e);
+        }
+        return e;
+    }
+
+    @Override
+    public void remove(int v) {
+        checkNotDelivering();
+        if (!contains(v)) {
+            return;
+        }
+        beginBatch();
+        for (int w : successorsInt(v)) {
+            note(Kind.EDGE_REMOVED, v, w, edgeId(v, w));
+        }
+        if (isDirected()) {
+            for (int u : predecessorsInt(v)) {
+                if (u != v) {
+                    note(Kind.EDGE_REMOVED, u, v, edgeId(u, v));
+                }
+            }
+        }
+        note(Kind.VERTEX_REMOVED, v, 0, 0);
+        super.remove(v);
+        endBatch();
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        checkNotDelivering();
+        int e = edgeId(u, v);
+        if (e != 0) {
+            super.remove(u, v);
+            record(Kind.EDGE_REMOVED, u, v, e);
+        }
+    }
+
+    /** Record the change KIND to SOURCE and TARGET with id ID, and report
+     *  it unless a batch is in progress. */
+    private void record(Kind kind, int source, int target, int id) {
+        note(kind, source, target, id);
+        flush();
+    }
+
+    /** Record the change KIND to SOURCE and TARGET with id ID, to be
+     *  reported by the next flush(). */
+    private void note(Kind kind, int source, int target, int id) {
+        _pending.add(kind, source, target, id);
+        _modCount += 1;
+    }
+
+    /** Report the pending changes to my listeners, unless a batch is in
+     *  progress. */
+    private void flush() {
+        if (_batches > 0 || _pending.size() == 0) {
+            return;
+        }
+        _delivering = true;
+        try {
+            for (Listener l : _listeners) {
+                l.changed(this, _pending);
+            }
+        } finally {
+            _delivering = false;
+            _pending.clear(_modCount + 1);
+        }
+    }
+
+    /** Throw an exception if I am reporting changes to my listeners. */
+    private void checkNotDelivering() {
+        if (_delivering) {
+            throw new IllegalStateException("graph modified by listener");
+        }
+    }
+
+    /** Initial capacity of a Changes. */
+    private static final int INITIAL = 16;
+
+    /** My listeners. */
+    private Listener[] _listeners = new Listener[0];
+    /** Changes not yet reported. */
+    private final Changes _pending = new Changes();
+    /** The number of changes made through me. */
+    private long _modCount;
+    /** The number of batches in progress. */
+    private int _batches;
+    /** True while changes are being reported. */
+    private boolean _delivering;
+
+}
@@ -0,0 +1,453 @@
+package graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** An immutable Graph whose representation lives outside the Java heap,
+ *  so that even a very large one adds nothing to the work of the garbage
+ *  collector.  The layout is that of CSRGraph: the successors of vertex
+ *  V occupy positions _out[V] .. _out[V + 1] - 1 of _succ, and likewise
+ *  for predecessors in _in and _pred (which are _out and _succ for
+ *  undirected graphs).  A bit set, _bits, records which vertex numbers
+ *  are in use.  Unlike CSRGraph, it does not keep the edge ids of the
+ *  graph it was built from: an edge's id is its position in _succ, plus
+ *  one (taken from the smaller end's list for undirected graphs).  Each
+ *  array is an IntBuffer over a direct ByteBuffer, and so may hold at
+ *  most Integer.MAX_VALUE / 4 entries.
+ *
+ *  An OffHeapGraph may also be served directly from a file mapped into
+ *  memory; see GraphFile.
+ *
+ *  The memory is released by close(), after which any use of the graph,
+ *  or of an Iteration obtained from it, throws IllegalStateException.  A
+ *  graph must not be closed while other threads are reading it.  An
+ *  unclosed graph's memory is reclaimed, as for any direct buffer, only
+ *  when the graph itself is garbage-collected.
+ *
+ *  Any attempt to modify an OffHeapGraph throws
+ *  UnsupportedOperationException.
+ *  @author Josh Rubin
+ */
+public class OffHeapGraph extends Graph implements AutoCloseable {
+
+    /** An off-heap copy of G. */
+    public OffHeapGraph(Graph G) {
+        _directed = G.isDirected();
+        _vertexSize = G.vertexSize();
+        _edgeSize = G.edgeSize();
+        _maxVertex = G.maxVertex();
+        ByteBuffer bits = allocate(_maxVertex / 32 + 1),
+            out = allocate(_maxVertex + 2),
+            succ = allocate(count(G, true));
+        _bits = bits.asIntBuffer();
+        for (int v : G.vertices()) {
+            _bits.put(v >>> 5, _bits.get(v >>> 5) | 1 << (v & 31));
+        }
+        _out = out.asIntBuffer();
+        _succ = succ.asIntBuffer();
+        fill(G, _out, _succ, true);
+        if (_directed) {
+            ByteBuffer in = allocate(_maxVertex + 2),
+                pred = allocate(count(G, false));
+            _in = in.asIntBuffer();
+            _pred = pred.asIntBuffer();
+            fill(G, _in, _pred, false);
+            _owned = new ByteBuffer[] { bits, out, succ, in, pred };
+        } else {
+            _in = _out;
+            _pred = _succ;
+            _owned = new ByteBuffer[] { bits, out, succ };
+        }
+    }
+
+    /** A graph that is directed iff DIRECTED, with VERTEXSIZE vertices,
+     *  EDGESIZE edges, and largest vertex MAXVERTEX, represented by BITS,
+     *  OUT, SUCC, IN, and PRED as described above.  OWNED are the buffers
+     *  to be freed by close(). */
+    OffHeapGraph(boolean directed, int vertexSize, int edgeSize,
+                 int maxVertex, IntBuffer bits, IntBuffer out,
+                 IntBuffer succ, IntBuffer in, IntBuffer pred,
+                 ByteBuffer... owned) {
+        _directed = directed;
+        _vertexSize = vertexSize;
+        _edgeSize = edgeSize;
+        _maxVertex = maxVertex;
+        _bits = bits;
+        _out = out;
+        _succ = succ;
+        _in = in;
+        _pred = pred;
+        _owned = owned;
+    }
+
+    /** Returns the total of the out-degrees (if OUT) or in-degrees of
+     *  the vertices of G. */
+    private static int count(Graph G, boolean out) {
+        long n;
+        n = 0;
+        for (int v : G.vertices()) {
+            n += out ? G.outDegree(v) : G.inDegree(v);
+        }
+        if (n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("graph too large");
+        }
+        return (int) n;
+    }
+
+    /** Set OFFSETS to the positions in TARGETS of the successors (if
+     *  OUT) or predecessors of each vertex of G, and copy them there. */
+    private void fill(Graph G, IntBuffer offsets, IntBuffer targets,
+                      boolean out) {
+        int k;
+        k = 0;
+        for (int v = 1; v <= _maxVertex; v += 1) {
+            offsets.put(v, k);
+            if (contains(v)) {
+                for (int w : out ? G.successorsInt(v)
+                         : G.predecessorsInt(v)) {
+                    targets.put(k, w);
+                    k += 1;
+                }
+            }
+        }
+        offsets.put(_maxVertex + 1, k);
+    }
+
+    /** Returns a new direct buffer of N ints in native byte order. */
+    private static ByteBuffer allocate(int n) {
+        if (n > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("graph too large");
+        }
+        return ByteBuffer.allocateDirect(4 * n)
+            .order(ByteOrder.nativeOrder());
+    }
+
+    /** Release my memory, or unmap my file.  I may not be used
+     *  afterwards.  Closing a closed graph has no effect. */
+    @Override
+    public void close() {
+        if (!_closed) {
+            _closed = true;
+            for (ByteBuffer buf : _owned) {
+                free(buf);
+            }
+        }
+    }
+
+    /** Returns true iff I have been closed. */
+    public boolean isClosed() {
+        return _closed;
+    }
+
+    /** Throw IllegalStateException if I have been closed. */
+    private void checkOpen() {
+        if (_closed) {
+            throw new IllegalStateException("graph is closed");
+        }
+    }
+
+    @Override
+    public int vertexSize() {
+        return _vertexSize;
+    }
+
+    @Override
+    public int maxVertex() {
+        return _maxVertex;
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edgeSize;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return _directed;
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return contains(v) ? _out.get(v + 1) - _out.get(v) : 0;
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return contains(v) ? _in.get(v + 1) - _in.get(v) : 0;
+    }
+
+    @Override
+    public boolean contains(int u) {
+        checkOpen();
+        return u > 0 && u <= _maxVertex
+            && (_bits.get(u >>> 5) & 1 << (u & 31)) != 0;
+    }
+
+    @Override
+    public boolean contains(int u, int v) {
+        return edgeId(u, v) != 0;
+    }
+
+    @Override
+    public int add() {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public int add(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        throw new UnsupportedOperationException("graph is read-only");
+    }
+
+    @Override
+    public Iteration<Integer> vertices() {
+        return verticesInt();
+    }
+
+    @Override
+    public IntIteration verticesInt() {
+        return new IntIteration() {
+            @Override
+            public boolean hasNext() {
+                while (_v <= _maxVertex && !contains(_v)) {
+                    _v += 1;
+                }
+                return _v <= _maxVertex;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _v += 1;
+                return _v - 1;
+            }
+
+            /** The next vertex number to examine. */
+            private int _v = 1;
+        };
+    }
+
+    @Override
+    public int successor(int v, int k) {
+        if (k < 0 || k >= outDegree(v)) {
+            return 0;
+        }
+        return _succ.get(_out.get(v) + k);
+    }
+
+    @Override
+    public int predecessor(int v, int k) {
+        if (k < 0 || k >= inDegree(v)) {
+            return 0;
+        }
+        return _pred.get(_in.get(v) + k);
+    }
+
+    @Override
+    public Iteration<Integer> successors(int v) {
+        return successorsInt(v);
+    }
+
+    @Override
+    public Iteration<Integer> predecessors(int v) {
+        return predecessorsInt(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        return new Slice(_succ, _out.get(v), _out.get(v + 1));
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        if (!contains(v)) {
+            return IntIteration.empty();
+        }
+        return new Slice(_pred, _in.get(v), _in.get(v + 1));
+    }
+
+    @Override
+    public Iteration<int[]> edges() {
+        checkOpen();
+        return new Iteration<int[]>() {
+            @Override
+            public boolean hasNext() {
+                checkOpen();
+                while (_k < _end) {
+                    while (_k >= _out.get(_u + 1)) {
+                        _u += 1;
+                    }
+                    if (_directed || _u <= _succ.get(_k)) {
+                        return true;
+                    }
+                    _k += 1;
+                }
+                return false;
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                _edge[0] = _u;
+                _edge[1] = _succ.get(_k);
+                _k += 1;
+                return _edge;
+            }
+
+            /** Index in _succ of the next candidate edge. */
+            private int _k;
+            /** End of _succ. */
+            private final int _end = _out.get(_maxVertex + 1);
+            /** Source vertex of the edge at _k. */
+            private int _u;
+            /** The array returned by next(). */
+            private final int[] _edge = new int[2];
+        };
+    }
+
+    /** Returns me, since I never change. */
+    @Override
+    public Graph snapshot() {
+        return this;
+    }
+
+    /** Returns the position of the edge (U, V) in _succ, plus one, or 0
+     *  if there is no such edge. */
+    @Override
+    protected int edgeId(int u, int v) {
+        if (!contains(u) || !contains(v)) {
+            return 0;
+        }
+        if (!_directed && u > v) {
+            int t = u;
+            u = v;
+            v = t;
+        }
+        for (int k = _out.get(u), end = _out.get(u + 1); k < end; k += 1) {
+            if (_succ.get(k) == v) {
+                return k + 1;
+            }
+        }
+        return 0;
+    }
+
+    /** Returns 0, since I never change. */
+    @Override
+    long stamp() {
+        return 0;
+    }
+
+    /** An Iteration over a range of one of my arrays. */
+    private class Slice extends IntIteration {
+        /** An Iteration over VALUES[START .. END-1]. */
+        Slice(IntBuffer values, int start, int end) {
+            _values = values;
+            _k = start;
+            _end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkOpen();
+            return _k < _end;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            _k += 1;
+            return _values.get(_k - 1);
+        }
+
+        /** The array being iterated over. */
+        private final IntBuffer _values;
+        /** Position of the next value to deliver. */
+        private int _k;
+        /** End of the range. */
+        private final int _end;
+    }
+
+    /** Release the memory of BUF, a direct buffer, at once, if the
+     *  runtime allows it.  Otherwise it is left to the garbage
+     *  collector. */
+    private static void free(ByteBuffer buf) {
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buf);
+            } catch (ReflectiveOperationException e) {
+                /* Leave BUF to the garbage collector. */
+            }
+        }
+    }
+
+    /** The JDK's sun.misc.Unsafe instance, or null if unavailable. */
+    private static final Object UNSAFE;
+    /** Unsafe.invokeCleaner, which frees a direct buffer, or null if
+     *  unavailable. */
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe;
+        Method invokeCleaner;
+        try {
+            Class<?> cls = Class.forName("sun.misc.Unsafe");
+            Field field = cls.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = cls.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /** True iff I am directed. */
+    private final boolean _directed;
+    /** Number of my vertices. */
+    private final int _vertexSize;
+    /** Number of my edges. */
+    private final int _edgeSize;
+    /** My largest vertex number. */
+    private final int _maxVertex;
+    /** Bit V % 32 of _bits.get(V / 32) is set iff V is my vertex. */
+    private final IntBuffer _bits;
+    /** Start of each vertex's successors in _succ, indexed by vertex. */
+    private final IntBuffer _out;
+    /** Successors of all vertices, concatenated in vertex order. */
+    private final IntBuffer _succ;
+    /** Start of each vertex's predecessors in _pred, indexed by vertex. */
+    private final IntBuffer _in;
+    /** Predecessors of all vertices, concatenated in vertex order. */
+    private final IntBuffer _pred;
+    /** The buffers holding my arrays, which close() frees. */
+    private final ByteBuffer[] _owned;
+    /** True iff I have been closed. */
+    private boolean _closed;
+
+}
@@ -0,0 +1,212 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/* See restrictions in Graph.java. */
+
+/** A renumbering of the vertices of a graph, 1 .. vertexSize(), chosen
+ *  so that vertices that are used together have nearby numbers.  Since
+ *  adjacency lists are generally laid out in vertex order, this makes a
+ *  traversal of the renumbered graph touch memory far more locally than
+ *  one of a graph numbered in the order its vertices happened to be
+ *  added.  A Reordering is computed from a graph by one of the static
+ *  methods below, and applied to it (or to a LabeledGraph over it) by
+ *  apply, which builds the renumbered copy.
+ *  @author Josh Rubin
+ */
+public class Reordering {
+
+    /** The reordering in which the vertices of G are numbered in
+     *  decreasing order of degree (the sum of in- and out-degree, for
+     *  a directed graph), and otherwise in their original order.  This
+     *  gathers the most frequently visited vertices together. */
+    public static Reordering byDegree(Graph G) {
+        long[] keys = new long[G.vertexSize()];
+        int k;
+        k = 0;
+        for (int v : G.verticesInt()) {
+            keys[k] = (long) (Integer.MAX_VALUE - degree(G, v)) << 32 | v;
+            k += 1;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i += 1) {
+            order[i] = (int) keys[i];
+        }
+        return new Reordering(G, order);
+    }
+
+    /** The reordering in which the vertices of G are numbered in the
+     *  order of a breadth-first traversal, following edges in either
+     *  direction, from the smallest unvisited vertex of each connected
+     *  component. */
+    public static Reordering breadthFirst(Graph G) {
+        return new Reordering(G, traverse(G, G.verticesInt(), false));
+    }
+
+    /** The reverse Cuthill-McKee reordering of G.  Each connected
+     *  component (following edges in either direction) is traversed
+     *  breadth first from one of its vertices of least degree, visiting
+     *  the neighbors of each vertex in increasing order of degree, and
+     *  the resulting order is then reversed.  This tends to minimize the
+     *  largest difference between the numbers of adjacent vertices. */
+    public static Reordering reverseCuthillMcKee(Graph G) {
+        int[] decreasing = byDegree(G)._toOld;
+        int n = G.vertexSize();
+        int[] increasing = new int[n];
+        for (int i = 0; i < n; i += 1) {
+            increasing[i] = decreasing[n - i];
+        }
+        int[] order = traverse(G, IntIteration.slice(increasing, 0, n), true);
+        for (int i = 0, j = n - 1; i < j; i += 1, j -= 1) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return new Reordering(G, order);
+    }
+
+    /** The Reordering of G that gives vertex ORDER[i] the number i + 1.
+     *  ORDER must contain each vertex of G exactly once. */
+    private Reordering(Graph G, int[] order) {
+        _toNew = new int[G.maxVertex() + 1];
+        _toOld = new int[order.length + 1];
+        for (int i = 0; i < order.length; i += 1) {
+            _toOld[i + 1] = order[i];
+            _toNew[order[i]] = i + 1;
+        }
+    }
+
+    /** Returns the number of vertices renumbered. */
+    public int size() {
+        return _toOld.length - 1;
+    }
+
+    /** Returns the new number of the vertex originally numbered V, or 0
+     *  if V was not a vertex. */
+    public int newVertex(int v) {
+        return v > 0 && v < _toNew.length ? _toNew[v] : 0;
+    }
+
+    /** Returns the original number of the vertex newly numbered V, or 0
+     *  if there is none. */
+    public int oldVertex(int v) {
+        return v > 0 && v < _toOld.length ? _toOld[v] : 0;
+    }
+
+    /** Returns a copy of G, which must be the graph from which I was
+     *  computed (or have the same vertices), with its vertices
+     *  renumbered.  If G is directed, the successors of each vertex are
+     *  in the same order as in G. */
+    public Graph apply(Graph G) {
+        GraphObj result = G.isDirected() ? new DirectedGraph(Storage.ARRAY)
+            : new UndirectedGraph(Storage.ARRAY);
+        int n = size();
+        result.addVertices(n);
+        long m;
+        m = 0;
+        for (int u = 1; u <= n; u += 1) {
+            m += G.outDegree(_toOld[u]);
+        }
+        if (m > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("graph too large");
+        }
+        int[] from = new int[(int) m], to = new int[(int) m];
+        int k;
+        k = 0;
+        for (int u = 1; u <= n; u += 1) {
+            for (int w : G.successorsInt(_toOld[u])) {
+                from[k] = u;
+                to[k] = _toNew[w];
+                k += 1;
+            }
+        }
+        result.addEdges(from, to);
+        return result;
+    }
+
+    /** Returns a copy of G, as for apply(Graph), with the same labels on
+     *  corresponding vertices and edges. */
+    public <VL, EL> LabeledGraph<VL, EL> apply(LabeledGraph<VL, EL> G) {
+        LabeledGraph<VL, EL> result = new LabeledGraph<>(apply((Graph) G));
+        for (int u = 1; u <= size(); u += 1) {
+            int v = _toOld[u];
+            result.setLabel(u, G.getLabel(v));
+            for (int w : G.successorsInt(v)) {
+                result.setLabel(u, _toNew[w], G.getLabel(v, w));
+            }
+        }
+        return result;
+    }
+
+    /** Returns the degree of V in G, counting both directions if G is
+     *  directed. */
+    private static int degree(Graph G, int v) {
+        return G.outDegree(v) + (G.isDirected() ? G.inDegree(v) : 0);
+    }
+
+    /** Returns the vertices of G in breadth-first order, following edges
+     *  in both directions, starting each connected component from the
+     *  first of its vertices delivered by STARTS.  If BYDEGREE, the
+     *  newly found neighbors of each vertex are visited in increasing
+     *  order of degree. */
+    private static int[] traverse(Graph G, IntIteration starts,
+                                  boolean byDegree) {
+        int[] order = new int[G.vertexSize()];
+        BitSet seen = new BitSet(G.maxVertex() + 1);
+        long[] keys = new long[16];
+        int head, tail;
+        head = tail = 0;
+        while (starts.hasNext()) {
+            int s = starts.nextInt();
+            if (seen.get(s)) {
+                continue;
+            }
+            seen.set(s);
+            order[tail] = s;
+            tail += 1;
+            while (head < tail) {
+                int v = order[head], first = tail;
+                head += 1;
+                for (int w : G.successorsInt(v)) {
+                    if (!seen.get(w)) {
+                        seen.set(w);
+                        order[tail] = w;
+                        tail += 1;
+                    }
+                }
+                if (G.isDirected()) {
+                    for (int w : G.predecessorsInt(v)) {
+                        if (!seen.get(w)) {
+                            seen.set(w);
+                            order[tail] = w;
+                            tail += 1;
+                        }
+                    }
+                }
+                if (byDegree && tail - first > 1) {
+                    if (keys.length < tail - first) {
+                        keys = new long[2 * (tail - first)];
+                    }
+                    for (int i = first; i < tail; i += 1) {
+                        keys[i - first] =
+                            (long) degree(G, order[i]) << 32 | order[i];
+                    }
+                    Arrays.sort(keys, 0, tail - first);
+                    for (int i = first; i < tail; i += 1) {
+                        order[i] = (int) keys[i - first];
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /** _toNew[v] is the new number of original vertex V, or 0. */
+    private final int[] _toNew;
+    /** _toOld[v] is the original number of new vertex V (_toOld[0] is
+     *  unused). */
+    private final int[] _toOld;
+
+}
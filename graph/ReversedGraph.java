@@ -0,0 +1,132 @@
+package graph;
+
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** A view of a graph with the directions of all its edges reversed, so
+ *  that the successors of each vertex are its predecessors in the
+ *  underlying graph and vice versa.  Since graphs keep both successor and
+ *  predecessor lists, this takes constant time to create and nothing is
+ *  copied.  The edge (U, V) of the view is the edge (V, U) of the
+ *  underlying graph, with the same id.  Changes made through the view
+ *  are made to the underlying graph, and changes to the underlying graph
+ *  show through the view.  Reversing an undirected graph has no
+ *  effect.
+ *  @author Josh Rubin
+ */
+public class ReversedGraph extends GraphFilter {
+
+    /** The reverse of G. */
+    public ReversedGraph(Graph G) {
+        super(G);
+        _directed = G.isDirected();
+    }
+
+    @Override
+    public int add(int u, int v) {
+        return super.add(v, u);
+    }
+
+    @Override
+    public void remove(int u, int v) {
+        super.remove(v, u);
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return super.inDegree(v);
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return super.outDegree(v);
+    }
+
+    @Override
+    public boolean contains(int u, int v) {
+        return super.contains(v, u);
+    }
+
+    @Override
+    public Iteration<Integer> successors(int v) {
+        return super.predecessors(v);
+    }
+
+    @Override
+    public int successor(int v, int k) {
+        return super.predecessor(v, k);
+    }
+
+    @Override
+    public int predecessor(int v, int k) {
+        return super.successor(v, k);
+    }
+
+    @Override
+    public Iteration<Integer> predecessors(int v) {
+        return super.successors(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        return super.predecessorsInt(v);
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        return super.successorsInt(v);
+    }
+
+    /** Returns an Iteration over my edges, which are those of the
+     *  underlying graph, reversed if it is directed. */
+    @Override
+    public Iteration<int[]> edges() {
+        if (!_directed) {
+            return super.edges();
+        }
+        final Iteration<int[]> edges = super.edges();
+        return new Iteration<int[]>() {
+            @Override
+            public boolean hasNext() {
+                return edges.hasNext();
+            }
+
+            @Override
+            public int[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int[] e = edges.next();
+                _edge[0] = e[1];
+                _edge[1] = e[0];
+                return _edge;
+            }
+
+            /** The array returned by next(). */
+            private final int[] _edge = new int[2];
+        };
+    }
+
+    /** Returns a snapshot of my current state: the reverse of a snapshot
+     *  of the underlying graph. */
+    @Override
+    public Graph snapshot() {
+        return _directed ? new ReversedGraph(super.snapshot())
+            : super.snapshot();
+    }
+
+    @Override
+    protected int edgeId(int u, int v) {
+        return super.edgeId(v, u);
+    }
+
+    @Override
+    IntIteration successorIds(int v) {
+        return _directed ? lookupIds(v) : super.successorIds(v);
+    }
+
+    /** True iff I am directed. */
+    private final boolean _directed;
+
+}
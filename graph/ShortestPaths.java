@@ -34,7 +34,9 @@ public abstract class ShortestPaths {
      *  getWeight, getPredecessor, and pathTo. */
     public void setPaths() {
         queue.clear();
-        for (int v: _G.vertices()) {
+        IntIteration vertices = _G.verticesInt();
+        while (vertices.hasNext()) {
+            int v = vertices.nextInt();
             if (v != getSource()) {
                 setWeight(v, Double.POSITIVE_INFINITY);
                 queue.add(v);
@@ -47,22 +49,31 @@ public abstract class ShortestPaths {
         }
         while (!queue.isEmpty()) {
             int currVer = queue.pollFirst();
-            marked.add(currVer);
             if (_dest == currVer) {
                 return;
             }
-            for (int next : _G.successors(currVer)) {
-                if ((getWeight(currVer) + getWeight(currVer, next))
-                        < getWeight(next)) {
-                    setWeight(next, getWeight(currVer)
-                            + getWeight(currVer, next));
-                    setPredecessor(next, currVer);
-                    queue.remove(next);
-                    queue.add(next);
-                }
+            relax(currVer);
+        }
+    }
 
+    /** Relax each of the edges leaving U. */
+    void relax(int u) {
+        IntIteration succs = _G.successorsInt(u);
+        while (succs.hasNext()) {
+            int next = succs.nextInt();
+            relax(u, next, getWeight(u, next));
+        }
+    }
 
-            }
+    /** Relax the edge (U, V), whose weight is W: if it gives a shorter
+     *  path to V than any found so far, record it. */
+    void relax(int u, int v, double w) {
+        double weight = getWeight(u) + w;
+        if (weight < getWeight(v)) {
+            queue.remove(v);
+            setWeight(v, weight);
+            setPredecessor(v, u);
+            queue.add(v);
         }
     }
 
@@ -154,8 +165,6 @@ public abstract class ShortestPaths {
     /** Queue represented as TreeSet. */
     private TreeSet<Integer> queue;
 
-    /** Marked Arraylist Data Structure. */
-    private ArrayList<Integer> marked = new ArrayList<Integer>();
 
 
 
@@ -20,7 +20,7 @@ public abstract class SimpleShortestPaths extends ShortestPaths {
         super(G, source, dest);
         weights = new ArrayList<Double>();
         prevs = new ArrayList<Integer>();
-        for (int i = 0; i < G.vertexSize() + 5; i++) {
+        for (int i = 0; i <= G.maxVertex(); i++) {
             weights.add(null);
             prevs.add(null);
         }
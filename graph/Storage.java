@@ -0,0 +1,23 @@
+package graph;
+
+/** The representation of the adjacency lists of a DirectedGraph or
+ *  UndirectedGraph, selected when the graph is constructed.
+ *  @author Josh Rubin
+ */
+public enum Storage {
+    /** Linked lists of Integers (the default). */
+    LINKED,
+    /** Growable int arrays.  Uses far less memory per edge than LINKED,
+     *  and gives constant-time successor(v, k) and predecessor(v, k). */
+    ARRAY;
+
+    /** Returns a new, empty adjacency list with my representation. */
+    AdjList newList() {
+        switch (this) {
+        case ARRAY:
+            return new ArrayAdjList();
+        default:
+            return new LinkedAdjList();
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package graph;
+
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/* See restrictions in Graph.java. */
+
+/** A read-only view of the subgraph of a graph selected by predicates on
+ *  its vertices and edges.  Nothing is copied: the vertices and edges of
+ *  the view are those of the underlying graph that the predicates accept
+ *  (and whose ends are both in the view), found by filtering the
+ *  underlying adjacency lists as they are traversed.  Successors and
+ *  predecessors keep their order, and edges keep their ids.  Changes to
+ *  the underlying graph show through the view.
+ *
+ *  Because the view is computed lazily, vertexSize(), maxVertex(), and
+ *  edgeSize() take time proportional to the size of the underlying graph,
+ *  and successor(v, k) and degrees take time proportional to the
+ *  underlying degree.  A view that will be queried many times can be told
+ *  by materializeAfter to build a CSRGraph of itself once it has been
+ *  queried often enough, and to answer from that while it is current.
+ *  @author Josh Rubin
+ */
+public class SubgraphView extends GraphFilter {
+
+    /** Selects the vertices of a SubgraphView. */
+    public interface VertexFilter {
+        /** Returns true iff vertex V is to be included. */
+        boolean accept(int v);
+    }
+
+    /** Selects the edges of a SubgraphView.  For an undirected graph, an
+     *  EdgeFilter should give the same answer for (U, V) and (V, U). */
+    public interface EdgeFilter {
+        /** Returns true iff the edge (U, V) is to be included. */
+        boolean accept(int u, int v);
+    }
+
+    /** The subgraph of G containing the vertices accepted by VERTICES and
+     *  the edges between them accepted by EDGES.  A null filter accepts
+     *  everything. */
+    public SubgraphView(Graph G, VertexFilter vertices, EdgeFilter edges) {
+        this(new Filtered(G, vertices, edges));
+    }
+
+    /** The subgraph of G induced by the vertices accepted by
+     *  VERTICES. */
+    public SubgraphView(Graph G, VertexFilter vertices) {
+        this(G, vertices, null);
+    }
+
+    /** A view that delegates to VIEW. */
+    private SubgraphView(Filtered view) {
+        super(view);
+        _view = view;
+    }
+
+    /** Arrange for me to build a compact copy of myself once I have
+     *  answered QUERIES more queries about my structure, and to use it in
+     *  place of filtering until the underlying graph changes or
+     *  invalidate() is called.  Changes are detected in DirectedGraphs,
+     *  UndirectedGraphs, and ObservableGraphs, and through any filters
+     *  over them (such as LabeledGraphs); over graphs whose changes
+     *  cannot be detected (such as ConcurrentDirectedGraphs), no copy is
+     *  made.  A negative QUERIES disables copying (the default).
+     *  Changes in the filters' answers are not detected; call
+     *  invalidate() after them.  Returns this view. */
+    public SubgraphView materializeAfter(int queries) {
+        _threshold = queries;
+        invalidate();
+        return this;
+    }
+
+    /** Discard any compact copy of myself, as when the filters'
+     *  answers have changed. */
+    public void invalidate() {
+        _copy = null;
+        _queries = 0;
+    }
+
+    @Override
+    public int vertexSize() {
+        Graph copy = copy();
+        return copy == null ? super.vertexSize() : copy.vertexSize();
+    }
+
+    @Override
+    public int maxVertex() {
+        Graph copy = copy();
+        return copy == null ? super.maxVertex() : copy.maxVertex();
+    }
+
+    @Override
+    public int edgeSize() {
+        Graph copy = copy();
+        return copy == null ? super.edgeSize() : copy.edgeSize();
+    }
+
+    @Override
+    public int outDegree(int v) {
+        Graph copy = copy();
+        return copy == null ? super.outDegree(v) : copy.outDegree(v);
+    }
+
+    @Override
+    public int inDegree(int v) {
+        Graph copy = copy();
+        return copy == null ? super.inDegree(v) : copy.inDegree(v);
+    }
+
+    @Override
+    public int successor(int v, int k) {
+        Graph copy = copy();
+        return copy == null ? super.successor(v, k) : copy.successor(v, k);
+    }
+
+    @Override
+    public int predecessor(int v, int k) {
+        Graph copy = copy();
+        return copy == null ? super.predecessor(v, k)
+            : copy.predecessor(v, k);
+    }
+
+    @Override
+    public Iteration<Integer> successors(int v) {
+        return successorsInt(v);
+    }
+
+    @Override
+    public Iteration<Integer> predecessors(int v) {
+        return predecessorsInt(v);
+    }
+
+    @Override
+    public IntIteration successorsInt(int v) {
+        Graph copy = copy();
+        return copy == null ? super.successorsInt(v) : copy.successorsInt(v);
+    }
+
+    @Override
+    public IntIteration predecessorsInt(int v) {
+        Graph copy = copy();
+        return copy == null ? super.predecessorsInt(v)
+            : copy.predecessorsInt(v);
+    }
+
+    @Override
+    public Iteration<int[]> edges() {
+        Graph copy = copy();
+        return copy == null ? super.edges() : copy.edges();
+    }
+
+    @Override
+    IntIteration successorIds(int v) {
+        return lookupIds(v);
+    }
+
+    /** Returns a stream over my compact copy, if I have or should now
+     *  build one, or else over the filtering view.  The choice is made
+     *  once, before the stream is split, so parallel parts do not count
+     *  queries or build copies concurrently. */
+    @Override
+    public IntStream vertexIntStream() {
+        return source().vertexIntStream();
+    }
+
+    /** Returns a stream over my compact copy or the filtering view, as
+     *  for vertexIntStream(). */
+    @Override
+    public Stream<int[]> edgeStream() {
+        return source().edgeStream();
+    }
+
+    /** Returns an immutable copy of my current state. */
+    @Override
+    public Graph snapshot() {
+        Graph copy = copy();
+        return copy == null ? new CSRGraph(_view) : copy;
+    }
+
+    /** Count a query, and return my compact copy if there is to be one,
+     *  or else the filtering view. */
+    private Graph source() {
+        Graph copy = copy();
+        return copy == null ? _view : copy;
+    }
+
+    /** Count a query, and return my compact copy if I have a current one
+     *  or the count has reached the threshold set by materializeAfter,
+     *  and otherwise null. */
+    private Graph copy() {
+        if (_threshold < 0) {
+            return null;
+        }
+        long stamp = _view.stamp();
+        if (stamp < 0) {
+            _copy = null;
+            return null;
+        }
+        if (_copy != null && stamp == _stamp) {
+            return _copy;
+        }
+        _copy = null;
+        if (_queries < _threshold) {
+            _queries += 1;
+            return null;
+        }
+        _copy = new CSRGraph(_view);
+        _stamp = stamp;
+        _queries = 0;
+        return _copy;
+    }
+
+    /** The filtering view of an underlying graph. */
+    private static class Filtered extends Graph {
+
+        /** The subgraph of G selected by VERTICES and EDGES (either of
+         *  which may be null). */
+        Filtered(Graph G, VertexFilter vertices, EdgeFilter edges) {
+            _G = G;
+            _vertices = vertices;
+            _edges = edges;
+        }
+
+        @Override
+        long stamp() {
+            return _G.stamp();
+        }
+
+        /** Returns true iff the edge (U, V) of _G, whose ends are known
+         *  to be in the view, is in the view. */
+        private boolean accept(int u, int v) {
+            return _edges == null || _edges.accept(u, v);
+        }
+
+        @Override
+        public int vertexSize() {
+            int n;
+            n = 0;
+            for (IntIteration it = verticesInt(); it.hasNext(); it.nextInt()) {
+                n += 1;
+            }
+            return n;
+        }
+
+        @Override
+        public int maxVertex() {
+            int v = _G.maxVertex();
+            while (v > 0 && !contains(v)) {
+                v -= 1;
+            }
+            return v;
+        }
+
+        @Override
+        public int edgeSize() {
+            int n;
+            n = 0;
+            for (Iteration<int[]> it = edges(); it.hasNext(); it.next()) {
+                n += 1;
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isDirected() {
+            return _G.isDirected();
+        }
+
+        @Override
+        public int outDegree(int v) {
+            return count(successorsInt(v));
+        }
+
+        @Override
+        public int inDegree(int v) {
+            return count(predecessorsInt(v));
+        }
+
+        @Override
+        public boolean contains(int u) {
+            return _G.contains(u)
+                && (_vertices == null || _vertices.accept(u));
+        }
+
+        @Override
+        public boolean contains(int u, int v) {
+            return contains(u) && contains(v) && _G.contains(u, v)
+                && accept(u, v);
+        }
+
+        @Override
+        public int add() {
+            throw new UnsupportedOperationException("graph is read-only");
+        }
+
+        @Override
+        public int add(int u, int v) {
+            throw new UnsupportedOperationException("graph is read-only");
+        }
+
+        @Override
+        public void remove(int v) {
+            throw new UnsupportedOperationException("graph is read-only");
+        }
+
+        @Override
+        public void remove(int u, int v) {
+            throw new UnsupportedOperationException("graph is read-only");
+        }
+
+        @Override
+        public Iteration<Integer> vertices() {
+            return verticesInt();
+        }
+
+        @Override
+        public IntIteration verticesInt() {
+            return new Selection(_G.verticesInt(), 0, false);
+        }
+
+        @Override
+        public int successor(int v, int k) {
+            return get(successorsInt(v), k);
+        }
+
+        @Override
+        public int predecessor(int v, int k) {
+            return get(predecessorsInt(v), k);
+        }
+
+        @Override
+        public Iteration<Integer> successors(int v) {
+            return successorsInt(v);
+        }
+
+        @Override
+        public Iteration<Integer> predecessors(int v) {
+            return predecessorsInt(v);
+        }
+
+        @Override
+        public IntIteration successorsInt(int v) {
+            if (!contains(v)) {
+                return IntIteration.empty();
+            }
+            return new Selection(_G.successorsInt(v), v, true);
+        }
+
+        @Override
+        public IntIteration predecessorsInt(int v) {
+            if (!contains(v)) {
+                return IntIteration.empty();
+            }
+            return new Selection(_G.predecessorsInt(v), v, !isDirected());
+        }
+
+        @Override
+        public Iteration<int[]> edges() {
+            final Iteration<int[]> edges = _G.edges();
+            return new Iteration<int[]>() {
+                @Override
+                public boolean hasNext() {
+                    while (_next == null && edges.hasNext()) {
+                        int[] e = edges.next();
+                        if (contains(e[0]) && contains(e[1])
+                            && accept(e[0], e[1])) {
+                            _next = e;
+                        }
+                    }
+                    return _next != null;
+                }
+
+                @Override
+                public int[] next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int[] e = _next;
+                    _next = null;
+                    return e;
+                }
+
+                /** The next edge to deliver, or null if not yet found. */
+                private int[] _next;
+            };
+        }
+
+        @Override
+        protected int edgeId(int u, int v) {
+            return contains(u, v) ? _G.edgeId(u, v) : 0;
+        }
+
+        /** Returns the number of items delivered by IT. */
+        private static int count(IntIteration it) {
+            int n;
+            n = 0;
+            while (it.hasNext()) {
+                it.nextInt();
+                n += 1;
+            }
+            return n;
+        }
+
+        /** Returns item K (numbering from 0) delivered by IT, or 0 if
+         *  there is none. */
+        private static int get(IntIteration it, int k) {
+            if (k < 0) {
+                return 0;
+            }
+            while (it.hasNext()) {
+                int w = it.nextInt();
+                if (k == 0) {
+                    return w;
+                }
+                k -= 1;
+            }
+            return 0;
+        }
+
+        /** The vertices delivered by an Iteration over _G that are in
+         *  the view, and that are joined to a given vertex by an edge in
+         *  the view. */
+        private class Selection extends IntIteration {
+
+            /** The vertices of IT that are in the view and, if V is
+             *  nonzero, are joined to V by an edge in the view: an edge
+             *  from V if OUT, and otherwise an edge into V. */
+            Selection(IntIteration it, int v, boolean out) {
+                _it = it;
+                _v = v;
+                _out = out;
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (_next == 0 && _it.hasNext()) {
+                    int w = _it.nextInt();
+                    if (contains(w)
+                        && (_v == 0
+                            || (_out ? accept(_v, w) : accept(w, _v)))) {
+                        _next = w;
+                    }
+                }
+                return _next != 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int w = _next;
+                _next = 0;
+                return w;
+            }
+
+            /** The underlying vertices. */
+            private final IntIteration _it;
+            /** The vertex to which delivered vertices are adjacent, or
+             *  0. */
+            private final int _v;
+            /** True iff delivered vertices are joined by edges from _v. */
+            private final boolean _out;
+            /** The next vertex to deliver, or 0 if not yet found. */
+            private int _next;
+        }
+
+        /** The underlying graph. */
+        private final Graph _G;
+        /** Selects my vertices, or null to select all. */
+        private final VertexFilter _vertices;
+        /** Selects my edges, or null to select all. */
+        private final EdgeFilter _edges;
+    }
+
+    /** The filtering view to which I delegate. */
+    private final Filtered _view;
+    /** A compact copy of _view, or null. */
+    private Graph _copy;
+    /** The stamp of the underlying graph when _copy was made. */
+    private long _stamp;
+    /** The number of queries answered by filtering since _copy was last
+     *  valid. */
+    private int _queries;
+    /** The number of queries after which to make a copy, or negative if
+     *  copies are not to be made. */
+    private int _threshold = -1;
+
+}
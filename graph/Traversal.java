@@ -1,5 +1,5 @@
 package graph;
-import java.util.ArrayList;
+import java.util.BitSet;
 
 
 /* See restrictions in Graph.java. */
@@ -58,9 +58,11 @@ public abstract class Traversal {
                     if (shouldPostVisit(vertex)) {
                         _fringe.add(-vertex);
                     }
-                    for (Integer integer : _G.successors(vertex)) {
-                        if (processSuccessor(vertex, integer)) {
-                            _fringe.add(integer);
+                    IntIteration succs = _G.successorsInt(vertex);
+                    while (succs.hasNext()) {
+                        int next = succs.nextInt();
+                        if (processSuccessor(vertex, next)) {
+                            _fringe.add(next);
                         }
                     }
                 }
@@ -75,12 +77,12 @@ public abstract class Traversal {
 
     /** Returns true iff V has been marked. */
     protected boolean marked(int v) {
-        return marked.contains(v);
+        return v >= 0 && marked.get(v);
     }
 
     /** Mark vertex V. */
     protected void mark(int v) {
-        marked.add(v);
+        marked.set(v);
     }
 
     /** Perform a visit on vertex V.  Returns false iff the traversal is to
@@ -118,6 +120,6 @@ public abstract class Traversal {
     /** The fringe. */
     protected final Queue<Integer> _fringe;
     /** The marked vertexes. */
-    private ArrayList<Integer> marked = new ArrayList<Integer>();
+    private BitSet marked = new BitSet();
 
 }
@@ -1,16 +1,26 @@
 package graph;
-import java.util.ArrayList;
-import java.util.Iterator;
 
 /* See restrictions in Graph.java. */
 
 /** Represents an undirected graph.  Out edges and in edges are not
- *  distinguished.  Likewise for successors and predecessors.
+ *  distinguished.  Likewise for successors and predecessors, which are
+ *  kept in a single adjacency list per vertex, holding each edge once
+ *  at each end.
  *
  *  @author Josh Rubin
  */
 public class UndirectedGraph extends GraphObj {
 
+    /** An empty undirected graph with LINKED adjacency lists. */
+    public UndirectedGraph() {
+    }
+
+    /** An empty undirected graph whose adjacency lists are represented as
+     *  specified by STORAGE. */
+    public UndirectedGraph(Storage storage) {
+        super(storage);
+    }
+
     @Override
     public boolean isDirected() {
         return false;
@@ -18,33 +28,17 @@ public class UndirectedGraph extends GraphObj {
 
     @Override
     public int inDegree(int v) {
-        if ((getPreds().size() > v && getPreds().get(v) != null)) {
-            return getPreds().get(v).size();
-        } else {
-            return 0;
-        }
+        return outDegree(v);
     }
 
     @Override
     public int predecessor(int v, int k) {
-        if ((getPreds().size() > v && getPreds().get(v) != null)) {
-            return getPreds().get(v).get(k);
-        } else {
-            return 0;
-        }
+        return successor(v, k);
     }
 
     @Override
     public Iteration<Integer> predecessors(int v) {
-        if (preds.get(v) == null) {
-            ArrayList<Integer> empty = new ArrayList<Integer>();
-            Iterator<Integer> it = empty.iterator();
-            Iteration<Integer> iteration = Iteration.iteration(it);
-            return iteration;
-        }
-        Iteration<Integer> it =
-                Iteration.iteration(getPreds().get(v).iterator());
-        return it;
+        return predecessorsInt(v);
     }
 
 }
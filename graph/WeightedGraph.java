@@ -0,0 +1,97 @@
+package graph;
+
+import java.util.NoSuchElementException;
+
+/* See restrictions in Graph.java. */
+
+/** A LabeledGraph whose edges also carry weights of type double.  The
+ *  weights are kept in one of my EdgeColumns, apart from the labels, so
+ *  that finding the weight of an edge does not involve its label, and
+ *  weightedSuccessors(v) delivers each successor of V together with the
+ *  weight of the edge to it, reading both from arrays.  An edge added
+ *  without a weight has weight 0.
+ *  @author Josh Rubin
+ */
+public class WeightedGraph<VL, EL> extends LabeledGraph<VL, EL> {
+
+    /** A weighting and labeling of the graph G.  As for LabeledGraph, G
+     *  should not afterwards be modified directly. */
+    public WeightedGraph(Graph G) {
+        super(G);
+    }
+
+    /** Returns the weight of the edge (U, V), or positive infinity if
+     *  there is no such edge. */
+    public double weight(int u, int v) {
+        int e = edgeId(u, v);
+        if (e == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return _weights.value(e);
+    }
+
+    /** Set weight(U, V) to W.  (U, V) must be one of my edges. */
+    public void setWeight(int u, int v, double w) {
+        _weights.set(u, v, w);
+    }
+
+    /** Adds an edge incident on U and V, labeled with LAB and with weight
+     *  W, and returns the same value as for add(u, v).  If there is
+     *  already an edge (U, V), sets its label and weight. */
+    public int add(int u, int v, EL lab, double w) {
+        int e = add(u, v, lab);
+        _weights.put(e, w);
+        return e;
+    }
+
+    /** Returns an Iteration over the successors of V, in the same order
+     *  as successors(V), that also supplies the weights of the edges to
+     *  them. */
+    public WeightedIteration weightedSuccessors(int v) {
+        return new WeightedIteration(successorsInt(v), successorIds(v));
+    }
+
+    /** The successors of a vertex, with the weights of the edges to
+     *  them. */
+    public class WeightedIteration extends IntIteration {
+
+        /** The vertices delivered by SUCCS, where IDS delivers the ids of
+         *  the edges to them. */
+        WeightedIteration(IntIteration succs, IntIteration ids) {
+            _succs = succs;
+            _ids = ids;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _succs.hasNext();
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            _id = _ids.nextInt();
+            return _succs.nextInt();
+        }
+
+        /** Returns the weight of the edge to the vertex most recently
+         *  delivered. */
+        public double weight() {
+            return _weights.value(_id);
+        }
+
+        /** The successors to deliver. */
+        private final IntIteration _succs;
+        /** The ids of the edges to them. */
+        private final IntIteration _ids;
+        /** The id of the edge to the vertex most recently delivered. */
+        private int _id;
+    }
+
+    /** Edge weights.  Like my other columns, an edge's weight is reset
+     *  to 0 when the edge is removed. */
+    private final EdgeColumn.Doubles _weights = doubleColumn();
+
+}
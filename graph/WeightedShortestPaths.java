@@ -0,0 +1,44 @@
+package graph;
+
+/* See restrictions in Graph.java. */
+
+/** The shortest paths through a WeightedGraph, using the weights it
+ *  stores.  Each edge is relaxed using the weight delivered with it by
+ *  WeightedGraph.weightedSuccessors, without looking the edge up.
+ *  @author Josh Rubin
+ */
+public class WeightedShortestPaths extends SimpleShortestPaths {
+
+    /** The shortest paths in G from SOURCE. */
+    public WeightedShortestPaths(WeightedGraph<?, ?> G, int source) {
+        this(G, source, 0);
+    }
+
+    /** A shortest path in G from SOURCE to DEST. */
+    public WeightedShortestPaths(WeightedGraph<?, ?> G, int source,
+                                 int dest) {
+        super(G, source, dest);
+        _weighted = G;
+    }
+
+    /** Returns the weight of (U, V) in my graph, which is the weight
+     *  used to search it. */
+    @Override
+    protected final double getWeight(int u, int v) {
+        return _weighted.weight(u, v);
+    }
+
+    @Override
+    void relax(int u) {
+        WeightedGraph<?, ?>.WeightedIteration succs =
+            _weighted.weightedSuccessors(u);
+        while (succs.hasNext()) {
+            int v = succs.nextInt();
+            relax(u, v, succs.weight());
+        }
+    }
+
+    /** The graph being searched. */
+    private final WeightedGraph<?, ?> _weighted;
+
+}
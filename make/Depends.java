@@ -2,14 +2,22 @@ package make;
 
 import graph.LabeledGraph;
 import graph.DirectedGraph;
+import graph.Storage;
 
 /** A directed, labeled subtype of Graph that describes dependencies between
- *  targets in a Makefile.
+ *  targets in a Makefile.  Rules are indexed by target.
  *  @author Josh Rubin
  */
 class Depends extends LabeledGraph<Rule, Void> {
     /** An empty dependency graph. */
     Depends() {
-        super(new DirectedGraph());
+        super(new DirectedGraph(Storage.ARRAY));
+        indexVertices(Rule::getTarget);
+    }
+
+    /** Returns the Rule for TARGET, or null if there is none. */
+    Rule findRule(String target) {
+        int v = findVertex(target);
+        return v == 0 ? null : getLabel(v);
     }
 }
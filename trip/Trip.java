@@ -1,13 +1,14 @@
 package trip;
 
 import graph.DirectedGraph;
-import graph.LabeledGraph;
-import graph.SimpleShortestPaths;
+import graph.EdgeColumn;
+import graph.Storage;
+import graph.WeightedGraph;
+import graph.WeightedShortestPaths;
 
 import java.io.FileReader;
 import java.io.IOException;
 
-import java.util.HashMap;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -65,12 +66,12 @@ class Trip {
 
         step = 1;
         for (int i = 1; i < dests.size(); i += 1) {
-            Integer
-                from = _sites.get(dests.get(i - 1)),
-                to = _sites.get(dests.get(i));
-            if (from == null) {
+            int
+                from = _map.findVertex(dests.get(i - 1)),
+                to = _map.findVertex(dests.get(i));
+            if (from == 0) {
                 error("No location named %s", dests.get(i - 1));
-            } else if (to == null) {
+            } else if (to == 0) {
                 error("No location named %s", dests.get(i));
             }
             TripPlan plan = new TripPlan(from, to);
@@ -109,10 +110,10 @@ class Trip {
         segment.remove(0);
         for (Integer num : segment) {
             w = num;
-            y = _map.getLabel(k, w).direction();
+            y = _map.direction(k, w);
             rep = y.fullName();
-            now = _map.getLabel(k, w).toString();
-            dist = _map.getLabel(k, w).length();
+            now = _map.name(k, w);
+            dist = _map.weight(k, w);
             if (!(way.equals(rep)) || !(way.equals(" "))) {
                 if (!(space.equals(" "))) {
                     if (!(space.equals(now))) {
@@ -137,11 +138,10 @@ class Trip {
 
     /** Add a new location named NAME at (X, Y). */
     private void addLocation(String name, double x, double y) {
-        if (_sites.containsKey(name)) {
+        if (_map.findVertex(name) != 0) {
             error("multiple entries for %s", name);
         }
-        int v = _map.add(new Location(name, x, y));
-        _sites.put(name, v);
+        _map.add(new Location(name, x, y));
     }
 
     /** Add a stretch of road named NAME from the Location named FROM
@@ -150,31 +150,61 @@ class Trip {
      *  to FROM. */
     private void addRoad(String from, String name, double length,
                          Direction dir, String to) {
-        Integer v0 = _sites.get(from),
-            v1 = _sites.get(to);
+        int v0 = _map.findVertex(from),
+            v1 = _map.findVertex(to);
 
-        if (v0 == null) {
+        if (v0 == 0) {
             error("location %s not defined", from);
-        } else if (v1 == null) {
+        } else if (v1 == 0) {
             error("location %s not defined", to);
         }
 
-        _map.add(v0, v1, new Road(name, dir, length));
-        _map.add(v1, v0, new Road(name, dir.reverse(), length));
+        if (length < 0) {
+            error("Road %s given negative length.", length);
+        }
+
+        _map.addRoad(v0, v1, name, dir, length);
+        _map.addRoad(v1, v0, name, dir.reverse(), length);
     }
 
     /** Represents the network of Locations and Roads. */
     private RoadMap _map = new RoadMap();
-    /** Mapping of Location names to corresponding map vertices. */
-    private HashMap<String, Integer> _sites = new HashMap<>();
 
-    /** A labeled directed graph of Locations whose edges are labeled by
-     *  Roads. */
-    private static class RoadMap extends LabeledGraph<Location, Road> {
+    /** A directed graph of Locations, indexed by name, whose edges are
+     *  road segments, weighted by their lengths.  The names and
+     *  directions of the segments are kept in columns rather than in an
+     *  object per segment. */
+    private static class RoadMap extends WeightedGraph<Location, Void> {
         /** An empty RoadMap. */
         RoadMap() {
-            super(new DirectedGraph());
+            super(new DirectedGraph(Storage.ARRAY));
+            indexVertices(Location::toString);
+        }
+
+        /** Add a segment of the road named NAME from U to V, running in
+         *  direction DIR, and LENGTH long. */
+        void addRoad(int u, int v, String name, Direction dir,
+                     double length) {
+            add(u, v, null, length);
+            _names.set(u, v, name);
+            _directions.set(u, v, dir);
+        }
+
+        /** Returns the name of the road from U to V. */
+        String name(int u, int v) {
+            return _names.get(u, v);
         }
+
+        /** Returns the direction of the road from U to V. */
+        Direction direction(int u, int v) {
+            return _directions.get(u, v);
+        }
+
+        /** Road names. */
+        private final EdgeColumn.Strings _names = stringColumn();
+        /** Road directions. */
+        private final EdgeColumn.Enums<Direction> _directions =
+            enumColumn(Direction.class);
     }
 
     /** Helper to print last line.
@@ -193,18 +223,13 @@ class Trip {
     }
 
     /** Paths in _map from a given location. */
-    private class TripPlan extends SimpleShortestPaths {
+    private class TripPlan extends WeightedShortestPaths {
         /** A plan for travel from START to DEST according to _map. */
         TripPlan(int start, int dest) {
             super(_map, start, dest);
             _finalLocation = _map.getLabel(dest);
         }
 
-        @Override
-        protected double getWeight(int u, int v) {
-            return _map.getLabel(u, v).length();
-        }
-
         @Override
         protected double estimatedDistance(int v) {
             return _map.getLabel(v).distance();